@@ -0,0 +1,40 @@
+package de.raulin.rosario.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running each task on a virtual thread where the JVM
+ * provides them (Java 21 and later) without requiring Java 21 to build.
+ * 
+ * @author Rosario Raulin
+ */
+public final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Returns a new virtual thread per task executor if the JVM supports
+	 * virtual threads, a cached pool of daemon threads called name otherwise.
+	 * The caller owns the executor and has to shut it down.
+	 */
+	public static ExecutorService newExecutor(final String name) {
+		try {
+			Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) m.invoke(null);
+		} catch (Exception e) {
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, name);
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+	}
+}
@@ -8,6 +8,7 @@ public class AdjacencyList implements IGraph {
 
 	private final Set<Edge>[] edges;
 	private int numberOfEdges;
+	private int version;
 	
 	@SuppressWarnings("unchecked")
 	public AdjacencyList(int size) {
@@ -20,17 +21,38 @@ public class AdjacencyList implements IGraph {
 		Edge toInsert = new Edge(from, to, weight);
 		if (edges[from] == null) {
 			edges[from] = new HashSet<Edge>();
-		} else if (edges[from].contains(toInsert)) {
+		} else if (edges[from].remove(toInsert)) {
 			--numberOfEdges;
-			edges[from].remove(toInsert);
 		}
 		++numberOfEdges;
+		++version;
 		edges[from].add(toInsert);
 	}
 
+	@Override
+	public boolean removeEdge(int from, int to) {
+		if (edges[from] != null && edges[from].remove(new Edge(from, to, 0))) {
+			--numberOfEdges;
+			++version;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean setWeight(int from, int to, double weight) {
+		Edge toInsert = new Edge(from, to, weight);
+		if (edges[from] != null && edges[from].remove(toInsert)) {
+			edges[from].add(toInsert);
+			++version;
+			return true;
+		}
+		return false;
+	}
+
 	@Override
 	public boolean hasEdge(int from, int to) {
-		return edges[from].contains(new Edge(from, to, 0));
+		return edges[from] != null && edges[from].contains(new Edge(from, to, 0));
 	}
 
 	@Override
@@ -48,4 +70,9 @@ public class AdjacencyList implements IGraph {
 		return numberOfEdges;
 	}
 
+	@Override
+	public int version() {
+		return version;
+	}
+
 }
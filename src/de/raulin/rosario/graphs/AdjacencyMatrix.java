@@ -7,6 +7,7 @@ public class AdjacencyMatrix implements IGraph {
 
 	private final Edge[][] edges;
 	private int numberOfEdges;
+	private int version;
 	
 	public AdjacencyMatrix(int size) {
 		this.edges = new Edge[size][size];
@@ -17,6 +18,24 @@ public class AdjacencyMatrix implements IGraph {
 	public void insertEdge(int from, int to, double weight) {
 		if (edges[from][to] == null) ++numberOfEdges;
 		edges[from][to] = new Edge(from, to, weight);
+		++version;
+	}
+
+	@Override
+	public boolean removeEdge(int from, int to) {
+		if (edges[from][to] == null) return false;
+		edges[from][to] = null;
+		--numberOfEdges;
+		++version;
+		return true;
+	}
+
+	@Override
+	public boolean setWeight(int from, int to, double weight) {
+		if (edges[from][to] == null) return false;
+		edges[from][to] = new Edge(from, to, weight);
+		++version;
+		return true;
 	}
 
 	@Override
@@ -47,4 +66,9 @@ public class AdjacencyMatrix implements IGraph {
 		return numberOfEdges;
 	}
 
+	@Override
+	public int version() {
+		return version;
+	}
+
 }
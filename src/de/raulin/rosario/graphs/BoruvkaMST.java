@@ -0,0 +1,197 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Computes a minimum spanning forest with Boruvka's algorithm in parallel.
+ * <p>
+ * Every round, each component picks its lightest outgoing edge and all picked
+ * edges are added at once, which at least halves the number of components.
+ * The edge scan, the bulk of the work, runs in parallel over chunks of
+ * vertices, which publish their candidates with a compare-and-set on the
+ * component's best edge. Edges are ordered by weight, then by their smaller
+ * and then by their larger endpoint, so the choice does not depend on thread
+ * timing and equal weights cannot close a cycle.
+ * <p>
+ * As for {@link PrimMST}, the graph must contain every edge in both
+ * directions with the same weight.
+ * 
+ * @author Rosario Raulin
+ */
+public class BoruvkaMST {
+
+	private static final int CHUNK_SIZE = 1 << 14;
+	private static final int NONE = -1;
+
+	private final CSRGraph graph;
+	private final int[] source;
+	private int[] component;
+	private final int[] size;
+	private final AtomicIntegerArray best;
+	private final List<Edge> edges;
+	private double weight;
+
+	public BoruvkaMST(IStaticGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	public BoruvkaMST(IStaticGraph graph, ExecutorService pool) {
+		this.graph = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		final int n = graph.V();
+		this.source = new int[this.graph.E()];
+		this.component = new int[n];
+		this.size = new int[n];
+		this.best = new AtomicIntegerArray(n);
+		this.edges = new ArrayList<Edge>();
+		this.weight = 0;
+
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					component[v] = v;
+					size[v] = 1;
+					for (int i = BoruvkaMST.this.graph.begin(v); i < BoruvkaMST.this.graph.end(v); ++i) {
+						source[i] = v;
+					}
+				}
+			}
+		});
+
+		while (findLightestEdges(pool, n) && merge(n)) {
+			relabel(pool, n);
+		}
+	}
+
+	/**
+	 * Stores every component's lightest outgoing edge in best.
+	 * 
+	 * @return true if any component has an outgoing edge
+	 */
+	private boolean findLightestEdges(ExecutorService pool, int n) {
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					best.set(v, NONE);
+				}
+			}
+		});
+
+		final boolean[] found = new boolean[Parallel.chunks(n, CHUNK_SIZE)];
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					int c = component[v];
+					int lightest = NONE;
+					for (int i = graph.begin(v); i < graph.end(v); ++i) {
+						if (component[graph.target(i)] != c) {
+							if (lightest == NONE || lighter(i, lightest)) {
+								lightest = i;
+							}
+						}
+					}
+					if (lightest == NONE) continue;
+					found[chunk] = true;
+					while (true) {
+						int current = best.get(c);
+						if (current != NONE && !lighter(lightest, current)) break;
+						if (best.compareAndSet(c, current, lightest)) break;
+					}
+				}
+			}
+		});
+
+		for (boolean f : found) {
+			if (f) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the picked edges to the forest and unites their components.
+	 * 
+	 * @return true if any edge was added
+	 */
+	private boolean merge(int n) {
+		boolean merged = false;
+		for (int c = 0; c < n; ++c) {
+			int e = best.get(c);
+			if (e == NONE) continue;
+			int a = find(source[e]);
+			int b = find(graph.target(e));
+			// Two components may have picked the same edge.
+			if (a == b) continue;
+			if (size[a] < size[b]) {
+				int tmp = a;
+				a = b;
+				b = tmp;
+			}
+			component[b] = a;
+			size[a] += size[b];
+			edges.add(new Edge(source[e], graph.target(e), graph.weight(e)));
+			weight += graph.weight(e);
+			merged = true;
+		}
+		return merged;
+	}
+
+	/**
+	 * Points every vertex directly at the root of its component.
+	 */
+	private void relabel(ExecutorService pool, int n) {
+		final int[] roots = new int[n];
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					roots[v] = find(v);
+				}
+			}
+		});
+		component = roots;
+	}
+
+	private int find(int v) {
+		while (component[v] != v) {
+			v = component[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Returns true if edge i comes before edge j in the total edge order.
+	 */
+	private boolean lighter(int i, int j) {
+		int c = Double.compare(graph.weight(i), graph.weight(j));
+		if (c != 0) return c < 0;
+		int u1 = source[i], v1 = graph.target(i);
+		int u2 = source[j], v2 = graph.target(j);
+		int min1 = Math.min(u1, v1), min2 = Math.min(u2, v2);
+		if (min1 != min2) return min1 < min2;
+		return Math.max(u1, v1) < Math.max(u2, v2);
+	}
+
+	/**
+	 * Returns the edges of the forest.
+	 */
+	public Iterable<Edge> edges() {
+		return edges;
+	}
+
+	/**
+	 * Returns the total weight of the forest.
+	 */
+	public double weight() {
+		return weight;
+	}
+}
@@ -0,0 +1,220 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A static graph in compressed sparse row form: the outgoing edges of v are
+ * stored at positions begin(v) to end(v) - 1 of two flat arrays.
+ * <p>
+ * This is the most compact and cache-friendly representation, intended for
+ * large read-mostly graphs. Edges can be reweighted with
+ * {@link #setWeight(int, int, double)} but not inserted or removed, so it
+ * implements {@link IStaticGraph} only; copy it into an {@link IGraph}
+ * implementation to change its structure.
+ * 
+ * @author Rosario Raulin
+ */
+public class CSRGraph implements IStaticGraph {
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] weights;
+	private int version;
+
+	/**
+	 * Builds the graph from a list of edges. Parallel edges are kept.
+	 */
+	public CSRGraph(EdgeList edges) {
+		this.offsets = new int[edges.V() + 1];
+		this.targets = new int[edges.size()];
+		this.weights = new double[edges.size()];
+
+		// A counting sort by source vertex, stable within each vertex.
+		for (int i = 0; i < edges.size(); ++i) {
+			++offsets[edges.from(i) + 1];
+		}
+		for (int v = 0; v < edges.V(); ++v) {
+			offsets[v + 1] += offsets[v];
+		}
+		int[] next = new int[edges.V()];
+		System.arraycopy(offsets, 0, next, 0, next.length);
+		for (int i = 0; i < edges.size(); ++i) {
+			int pos = next[edges.from(i)]++;
+			targets[pos] = edges.to(i);
+			weights[pos] = edges.weight(i);
+		}
+	}
+
+	/**
+	 * Copies graph into compressed sparse row form.
+	 */
+	public CSRGraph(IStaticGraph graph) {
+		this.offsets = new int[graph.V() + 1];
+		this.targets = new int[graph.E()];
+		this.weights = new double[graph.E()];
+
+		int pos = 0;
+		for (int v = 0; v < graph.V(); ++v) {
+			offsets[v] = pos;
+			for (Edge e : graph.getAdjacent(v)) {
+				targets[pos] = e.getTo();
+				weights[pos] = e.getWeight();
+				++pos;
+			}
+		}
+		offsets[graph.V()] = pos;
+	}
+
+	private CSRGraph(int[] offsets, int[] targets, double[] weights) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Returns the graph with every edge reversed, so that its outgoing edges
+	 * are the incoming edges of this graph.
+	 */
+	public CSRGraph transpose() {
+		int n = V();
+		int[] newOffsets = new int[n + 1];
+		int[] newTargets = new int[targets.length];
+		double[] newWeights = new double[weights.length];
+
+		for (int i = 0; i < targets.length; ++i) {
+			++newOffsets[targets[i] + 1];
+		}
+		for (int v = 0; v < n; ++v) {
+			newOffsets[v + 1] += newOffsets[v];
+		}
+		int[] next = new int[n];
+		System.arraycopy(newOffsets, 0, next, 0, n);
+		for (int v = 0; v < n; ++v) {
+			for (int i = offsets[v]; i < offsets[v + 1]; ++i) {
+				int pos = next[targets[i]]++;
+				newTargets[pos] = v;
+				newWeights[pos] = weights[i];
+			}
+		}
+		return new CSRGraph(newOffsets, newTargets, newWeights);
+	}
+
+	/**
+	 * Returns a copy of this graph with the vertices renumbered: vertex v
+	 * becomes permutation.toNew(v).
+	 */
+	public CSRGraph permute(Permutation permutation) {
+		int n = V();
+		int[] newOffsets = new int[n + 1];
+		int[] newTargets = new int[targets.length];
+		double[] newWeights = new double[weights.length];
+
+		int pos = 0;
+		for (int v = 0; v < n; ++v) {
+			newOffsets[v] = pos;
+			int old = permutation.toOld(v);
+			for (int i = offsets[old]; i < offsets[old + 1]; ++i) {
+				newTargets[pos] = permutation.toNew(targets[i]);
+				newWeights[pos] = weights[i];
+				++pos;
+			}
+		}
+		newOffsets[n] = pos;
+		return new CSRGraph(newOffsets, newTargets, newWeights);
+	}
+
+	/**
+	 * Returns the position of v's first outgoing edge.
+	 */
+	public int begin(int v) {
+		return offsets[v];
+	}
+
+	/**
+	 * Returns the position after v's last outgoing edge.
+	 */
+	public int end(int v) {
+		return offsets[v + 1];
+	}
+
+	/**
+	 * Returns the target of the edge at position i.
+	 */
+	public int target(int i) {
+		return targets[i];
+	}
+
+	/**
+	 * Returns the weight of the edge at position i.
+	 */
+	public double weight(int i) {
+		return weights[i];
+	}
+
+	/**
+	 * Changes the weight of the first edge from -> to.
+	 * 
+	 * @return true if the edge existed, false if nothing was changed
+	 */
+	public boolean setWeight(int from, int to, double weight) {
+		for (int i = offsets[from]; i < offsets[from + 1]; ++i) {
+			if (targets[i] == to) {
+				weights[i] = weight;
+				++version;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean hasEdge(int from, int to) {
+		for (int i = offsets[from]; i < offsets[from + 1]; ++i) {
+			if (targets[i] == to) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Iterable<Edge> getAdjacent(final int from) {
+		return new Iterable<Edge>() {
+
+			@Override
+			public Iterator<Edge> iterator() {
+				return new Iterator<Edge>() {
+
+					private int pos = offsets[from];
+
+					@Override
+					public boolean hasNext() {
+						return pos < offsets[from + 1];
+					}
+
+					@Override
+					public Edge next() {
+						if (!hasNext()) throw new NoSuchElementException();
+						Edge e = new Edge(from, targets[pos], weights[pos]);
+						++pos;
+						return e;
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public int V() {
+		return offsets.length - 1;
+	}
+
+	@Override
+	public int E() {
+		return targets.length;
+	}
+
+	@Override
+	public int version() {
+		return version;
+	}
+}
@@ -0,0 +1,118 @@
+package de.raulin.rosario.graphs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Computes the (weakly) connected components of a graph in parallel with a
+ * lock-free union-find.
+ * <p>
+ * All edges are united concurrently. A root is always linked below a root with
+ * a smaller ID by a compare-and-set on its parent, so no cycles can form, and
+ * finds halve their paths with compare-and-sets as well. Every component is
+ * labelled with its smallest vertex.
+ * 
+ * @author Rosario Raulin
+ */
+public class ConnectedComponents {
+
+	private static final int CHUNK_SIZE = 1 << 14;
+
+	private final AtomicIntegerArray parent;
+	private final int[] label;
+	private final int count;
+
+	public ConnectedComponents(IStaticGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	public ConnectedComponents(IStaticGraph graph, ExecutorService pool) {
+		final CSRGraph csr = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		final int n = csr.V();
+		this.parent = new AtomicIntegerArray(n);
+		this.label = new int[n];
+
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					parent.set(v, v);
+				}
+			}
+		});
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					for (int i = csr.begin(v); i < csr.end(v); ++i) {
+						union(v, csr.target(i));
+					}
+				}
+			}
+		});
+
+		final int[] roots = new int[Parallel.chunks(n, CHUNK_SIZE)];
+		Parallel.forEach(pool, n, CHUNK_SIZE, new Parallel.Body() {
+
+			@Override
+			public void run(int chunk, int from, int to) {
+				for (int v = from; v < to; ++v) {
+					label[v] = find(v);
+					if (label[v] == v) ++roots[chunk];
+				}
+			}
+		});
+		int sum = 0;
+		for (int r : roots) {
+			sum += r;
+		}
+		this.count = sum;
+	}
+
+	private int find(int v) {
+		while (true) {
+			int p = parent.get(v);
+			if (p == v) return v;
+			int gp = parent.get(p);
+			if (p != gp) {
+				parent.compareAndSet(v, p, gp);
+			}
+			v = gp;
+		}
+	}
+
+	private void union(int u, int v) {
+		while (true) {
+			u = find(u);
+			v = find(v);
+			if (u == v) return;
+			if (u < v) {
+				int tmp = u;
+				u = v;
+				v = tmp;
+			}
+			if (parent.compareAndSet(u, u, v)) return;
+		}
+	}
+
+	/**
+	 * Returns the label of v's component: its smallest vertex.
+	 */
+	public int component(int v) {
+		return label[v];
+	}
+
+	public boolean connected(int u, int v) {
+		return label[u] == label[v];
+	}
+
+	/**
+	 * Returns the number of components.
+	 */
+	public int count() {
+		return count;
+	}
+}
@@ -0,0 +1,109 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * The catalogue of named benchmark graphs. Every dataset is generated by a
+ * {@link GraphGenerator}, so a name and a seed fully determine the graph.
+ * 
+ * @author Rosario Raulin
+ */
+public enum Dataset {
+
+	/**
+	 * 5,000 vertices with an edge to every 3rd other vertex on average
+	 * (about 8.3 million edges).
+	 */
+	DENSE_5K("dense-5k") {
+		@Override
+		public EdgeList generate(GraphGenerator generator) {
+			return generator.dense(5000, 5, 1000);
+		}
+	},
+
+	/**
+	 * 1 million vertices with 8 random neighbours each.
+	 */
+	SPARSE_1M("sparse-1m") {
+		@Override
+		public EdgeList generate(GraphGenerator generator) {
+			return generator.random(1000000, 8, 1000);
+		}
+	},
+
+	/**
+	 * A 1,000 x 1,000 grid, resembling a city road network.
+	 */
+	GRID_1K("grid-1k") {
+		@Override
+		public EdgeList generate(GraphGenerator generator) {
+			return generator.grid(1000, 1000, 100);
+		}
+	},
+
+	/**
+	 * 1 million random points in the unit square with about 8 neighbours
+	 * each, resembling a rural road network.
+	 */
+	GEOMETRIC_1M("geo-1m") {
+		@Override
+		public EdgeList generate(GraphGenerator generator) {
+			return generator.geometric(1000000, Math.sqrt(8 / (Math.PI * 1000000)));
+		}
+	},
+
+	/**
+	 * A Graph500-style R-MAT graph with 2^20 vertices and 16 edges per vertex
+	 * (about 16.8 million edges) and a power-law degree distribution.
+	 */
+	RMAT_20("rmat-20") {
+		@Override
+		public EdgeList generate(GraphGenerator generator) {
+			return generator.rmat(20, 16L << 20, 0.57, 0.19, 0.19, 1000);
+		}
+	};
+
+	/**
+	 * The seed used by {@link #load()}.
+	 */
+	public static final long DEFAULT_SEED = 42;
+
+	private final String name;
+
+	private Dataset(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the dataset's name as used on the command line.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Generates the dataset's edges.
+	 */
+	public abstract EdgeList generate(GraphGenerator generator);
+
+	/**
+	 * Generates the dataset with the default seed.
+	 */
+	public CSRGraph load() {
+		return load(DEFAULT_SEED);
+	}
+
+	public CSRGraph load(long seed) {
+		return new CSRGraph(generate(new GraphGenerator(seed)));
+	}
+
+	/**
+	 * Returns the dataset called name.
+	 * 
+	 * @throws IllegalArgumentException if there is no such dataset
+	 */
+	public static Dataset byName(String name) {
+		for (Dataset d : values()) {
+			if (d.name.equals(name)) return d;
+		}
+		throw new IllegalArgumentException("unknown dataset: " + name);
+	}
+}
@@ -1,54 +1,75 @@
 package de.raulin.rosario.graphs;
 
 import java.util.Comparator;
-import java.util.LinkedList;
 
 import de.raulin.rosario.heaps.BinaryHeap;
+import de.raulin.rosario.heaps.HeapMetrics;
 import de.raulin.rosario.heaps.PQNode;
 import de.raulin.rosario.heaps.PriorityQueue;
 
 public class DijkstraAlgorithm {
 
-	private final IGraph graph;
-	private final Edge[] edgeTo;
+	private final IStaticGraph graph;
+	private final int[] edgeTo;
+	private final double[] distTo;
 	private final PQNode<Integer>[] nodes;
+	private final ShortestPathTree tree;
+	private final SearchMetrics metrics;
+	private final HeapMetrics heapMetrics;
 	
 	
+	public DijkstraAlgorithm(IStaticGraph graph, int start) {
+		this(graph, start, SearchMetrics.NONE, HeapMetrics.NONE);
+	}
+	
+	/**
+	 * Runs the search reporting its own work to metrics and the work of its
+	 * priority queue to heapMetrics.
+	 */
 	@SuppressWarnings("unchecked")
-	public DijkstraAlgorithm(IGraph graph, int start) {
+	public DijkstraAlgorithm(IStaticGraph graph, int start, SearchMetrics metrics,
+			HeapMetrics heapMetrics) {
 		this.graph = graph;
-		this.edgeTo = new Edge[graph.V()];
+		this.metrics = metrics;
+		this.heapMetrics = heapMetrics;
+		this.edgeTo = new int[graph.V()];
+		this.distTo = new double[graph.V()];
 		this.nodes = (PQNode<Integer>[]) new PQNode[graph.V()];
 		findShortestPaths(start);
+		this.tree = new ShortestPathTree(start, edgeTo, distTo);
 	}
 	
 	private void findShortestPaths(int start) {
-		final double[] distTo = new double[graph.V()];
 		PriorityQueue<Integer> pq = new BinaryHeap<Integer>(graph.V(), new Comparator<Integer>() {
 
 			@Override
 			public int compare(Integer o1, Integer o2) {
 				return Double.compare(distTo[o1], distTo[o2]);
 			}
-		});
+		}, heapMetrics);
 		
 		for (int v = 0; v < graph.V(); ++v) {
-			distTo[v] = Integer.MAX_VALUE;
+			distTo[v] = Double.POSITIVE_INFINITY;
+			edgeTo[v] = ShortestPathTree.NONE;
 		}
 		distTo[start] = 0;
 		nodes[start] = pq.insert(start);
 		
 		while (!pq.isEmpty()) {
-			relax(distTo, pq, pq.extractMin());
+			Integer v = pq.extractMin();
+			if (SearchMetrics.ENABLED) metrics.settled();
+			relax(distTo, pq, v);
 		}
 	}
 	
 	private void relax(double[] distTo, PriorityQueue<Integer> pq, Integer v) {
 		for (Edge e : graph.getAdjacent(v)) {
 			int w = e.getTo();
+			if (SearchMetrics.ENABLED) metrics.relaxed();
 			if (distTo[w] > distTo[v] + e.getWeight()) {
+				if (SearchMetrics.ENABLED) metrics.improved();
 				distTo[w] = distTo[v] + e.getWeight();
-				edgeTo[w] = e;
+				edgeTo[w] = v;
 				if (nodes[w] != null) pq.decreaseKey(nodes[w]);
 				else nodes[w] = pq.insert(w);
 			}
@@ -56,16 +77,25 @@ public class DijkstraAlgorithm {
 	}
 
 	public Iterable<Integer> pathTo(int to) {
-		LinkedList<Integer> path = new LinkedList<Integer>();
-		
-		path.add(to);
-		Edge curr = edgeTo[to];
-		while (curr != null) {
-			path.addFirst(curr.getFrom());
-			curr = edgeTo[curr.getFrom()];
-		}
-		
-		return path;
+		return tree.pathTo(to);
+	}
+	
+	public boolean hasPathTo(int to) {
+		return tree.hasPathTo(to);
+	}
+	
+	public double distTo(int to) {
+		return tree.distTo(to);
+	}
+	
+	/**
+	 * Returns the computed shortest-path tree in its compact form. Use it for
+	 * the allocation-free path methods.
+	 * 
+	 * @return the shortest-path tree rooted at start
+	 */
+	public ShortestPathTree tree() {
+		return tree;
 	}
 	
 	public static void main(String[] args) {
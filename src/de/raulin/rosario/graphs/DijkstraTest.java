@@ -1,31 +1,37 @@
 package de.raulin.rosario.graphs;
 
-import java.util.Random;
+import de.raulin.rosario.heaps.HeapCounters;
 
+/**
+ * Runs Dijkstra's algorithm on a benchmark dataset.
+ * <p>
+ * Usage: DijkstraTest [dataset [seed]], see {@link Dataset} for the names.
+ * The counters stay zero unless the JVM runs with -Dheaps.metrics=true.
+ */
 public class DijkstraTest {
 	
-	private static Random RANDGEN = new Random();
-
-	private static void makeDenseGraph(IGraph graph) {
-		for (int i = 0; i < graph.V(); ++i) {
-			for (int j = 0; j < graph.V(); j = j + RANDGEN.nextInt(5)+1) {
-				if (i != j) {
-					graph.insertEdge(i, j, RANDGEN.nextInt(1000));
-				}
-			}
-		}
-	}
-	
 	public static void main(String[] args) {
-		int testSize = 10000;
+		Dataset dataset = args.length > 0 ? Dataset.byName(args[0]) : Dataset.DENSE_5K;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : Dataset.DEFAULT_SEED;
+		
+		long generateStart = System.nanoTime();
+		IStaticGraph graph = dataset.load(seed);
+		System.out.printf("Generating %s (V=%d, E=%d) took %f seconds.\n",
+				dataset.getName(), graph.V(), graph.E(),
+				(System.nanoTime() - generateStart) / 1000000000.0);
 		
-		IGraph graph = new AdjacencyMatrix(testSize);
-		makeDenseGraph(graph);
+		SearchCounters counters = new SearchCounters();
+		HeapCounters heapCounters = new HeapCounters();
 		
 		long start = System.nanoTime();
-		DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(graph, 0);
+		new DijkstraAlgorithm(graph, 0, counters, heapCounters);
 		double diff = (System.nanoTime() - start) / 1000000000.0;
 		
 		System.out.printf("Dijkstra took %f seconds.\n", diff);
+		if (!SearchMetrics.ENABLED) {
+			System.out.println("Counters disabled, run with -Dheaps.metrics=true.");
+		}
+		System.out.println("search: " + counters);
+		System.out.println("heap: " + heapCounters);
 	}
 }
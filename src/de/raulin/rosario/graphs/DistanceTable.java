@@ -0,0 +1,57 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * The shortest-path distances from a list of sources to a list of targets,
+ * stored row by row in a single array.
+ * 
+ * @author Rosario Raulin
+ * @see ManyToMany
+ */
+public class DistanceTable {
+
+	private final int[] sources;
+	private final int[] targets;
+	private final double[] distances;
+
+	DistanceTable(int[] sources, int[] targets, double[] distances) {
+		this.sources = sources;
+		this.targets = targets;
+		this.distances = distances;
+	}
+
+	/**
+	 * Returns the distance from the i-th source to the j-th target, or
+	 * Double.POSITIVE_INFINITY if there is no path.
+	 */
+	public double get(int i, int j) {
+		return distances[i * targets.length + j];
+	}
+
+	/**
+	 * Returns the i-th source vertex.
+	 */
+	public int source(int i) {
+		return sources[i];
+	}
+
+	/**
+	 * Returns the j-th target vertex.
+	 */
+	public int target(int j) {
+		return targets[j];
+	}
+
+	/**
+	 * Returns the number of sources (rows).
+	 */
+	public int rows() {
+		return sources.length;
+	}
+
+	/**
+	 * Returns the number of targets (columns).
+	 */
+	public int columns() {
+		return targets.length;
+	}
+}
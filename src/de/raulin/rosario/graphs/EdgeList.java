@@ -0,0 +1,133 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growable list of weighted, directed edges stored in parallel primitive
+ * arrays. It is the exchange format between graph generators and the
+ * {@link IGraph} implementations.
+ * 
+ * @author Rosario Raulin
+ */
+public class EdgeList {
+
+	private static final int DEFAULT_SIZE = 16;
+
+	private final int vertices;
+	private int size;
+	private int[] from;
+	private int[] to;
+	private double[] weight;
+	private double[] x;
+	private double[] y;
+
+	/**
+	 * Creates an empty list of edges between the vertices 0 to vertices - 1.
+	 */
+	public EdgeList(int vertices) {
+		this(vertices, DEFAULT_SIZE);
+	}
+
+	public EdgeList(int vertices, int capacity) {
+		this.vertices = vertices;
+		this.size = 0;
+		this.from = new int[Math.max(1, capacity)];
+		this.to = new int[from.length];
+		this.weight = new double[from.length];
+	}
+
+	public void add(int from, int to, double weight) {
+		if (size == this.from.length) {
+			resize(2 * size);
+		}
+		this.from[size] = from;
+		this.to[size] = to;
+		this.weight[size] = weight;
+		++size;
+	}
+
+	private void resize(int to) {
+		this.from = Arrays.copyOf(from, to);
+		this.to = Arrays.copyOf(this.to, to);
+		this.weight = Arrays.copyOf(weight, to);
+	}
+
+	/**
+	 * Returns the number of vertices the edges may refer to.
+	 */
+	public int V() {
+		return vertices;
+	}
+
+	/**
+	 * Returns the number of edges in this list.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int from(int i) {
+		return from[i];
+	}
+
+	public int to(int i) {
+		return to[i];
+	}
+
+	public double weight(int i) {
+		return weight[i];
+	}
+
+	/**
+	 * Attaches planar coordinates to the vertices (e. g. for grids and
+	 * geometric graphs). The arrays are not copied.
+	 */
+	public void setCoordinates(double[] x, double[] y) {
+		if (x.length != vertices || y.length != vertices) {
+			throw new IllegalArgumentException("need one coordinate per vertex");
+		}
+		this.x = x;
+		this.y = y;
+	}
+
+	public boolean hasCoordinates() {
+		return x != null;
+	}
+
+	public double x(int v) {
+		return x[v];
+	}
+
+	public double y(int v) {
+		return y[v];
+	}
+
+	/**
+	 * Inserts all edges into graph (in list order, so later duplicates win).
+	 */
+	public void insertInto(IGraph graph) {
+		for (int i = 0; i < size; ++i) {
+			graph.insertEdge(from[i], to[i], weight[i]);
+		}
+	}
+
+	/**
+	 * Concatenates parts in order into a single list.
+	 */
+	public static EdgeList concat(int vertices, List<EdgeList> parts) {
+		int total = 0;
+		for (EdgeList part : parts) {
+			total += part.size;
+		}
+
+		EdgeList result = new EdgeList(vertices, total);
+		for (EdgeList part : parts) {
+			System.arraycopy(part.from, 0, result.from, result.size, part.size);
+			System.arraycopy(part.to, 0, result.to, result.size, part.size);
+			System.arraycopy(part.weight, 0, result.weight, result.size, part.size);
+			result.size += part.size;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,260 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Generates random graphs in parallel and reproducibly.
+ * <p>
+ * The vertices (or edges) to generate are cut into chunks of a fixed size.
+ * Every chunk gets its own SplittableRandom, split off a generator seeded with
+ * seed in chunk order, and the chunks' edges are concatenated in chunk order.
+ * The same seed therefore always yields the same {@link EdgeList}, no matter
+ * how many threads did the work.
+ * 
+ * @author Rosario Raulin
+ */
+public class GraphGenerator {
+
+	private static final int VERTEX_CHUNK = 1 << 12;
+	private static final int EDGE_CHUNK = 1 << 16;
+
+	/**
+	 * Generates the part of a graph belonging to a single chunk.
+	 */
+	private interface ChunkGenerator {
+		void generate(SplittableRandom random, int from, int to, EdgeList out);
+	}
+
+	private final long seed;
+	private final ExecutorService pool;
+
+	/**
+	 * Creates a generator running on the common ForkJoinPool.
+	 */
+	public GraphGenerator(long seed) {
+		this(seed, ForkJoinPool.commonPool());
+	}
+
+	public GraphGenerator(long seed, ExecutorService pool) {
+		this.seed = seed;
+		this.pool = pool;
+	}
+
+	private EdgeList generate(final int vertices, long n, int chunkSize,
+			final ChunkGenerator generator) {
+		if (n > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("too many items: " + n);
+		}
+		SplittableRandom root = new SplittableRandom(seed);
+		int chunks = Parallel.chunks(n, chunkSize);
+		List<Callable<EdgeList>> tasks = new ArrayList<Callable<EdgeList>>(chunks);
+
+		for (int c = 0; c < chunks; ++c) {
+			final SplittableRandom random = root.split();
+			final int from = c * chunkSize;
+			final int to = (int) Math.min(n, (long) from + chunkSize);
+			tasks.add(new Callable<EdgeList>() {
+
+				@Override
+				public EdgeList call() {
+					EdgeList out = new EdgeList(vertices);
+					generator.generate(random, from, to, out);
+					return out;
+				}
+			});
+		}
+
+		return EdgeList.concat(vertices, Parallel.invokeAll(pool, tasks));
+	}
+
+	/**
+	 * Creates a sparse graph where every vertex has degree edges to uniformly
+	 * chosen other vertices.
+	 */
+	public EdgeList random(final int n, final int degree, final int maxWeight) {
+		return generate(n, n, VERTEX_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int v = from; v < to; ++v) {
+					for (int k = 0; k < degree && n > 1; ++k) {
+						int w;
+						do {
+							w = random.nextInt(n);
+						} while (w == v);
+						out.add(v, w, 1 + random.nextInt(maxWeight));
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates a dense graph: every vertex has edges to other vertices that are
+	 * between 1 and maxStep apart, i. e. about 2n / (maxStep + 1) edges each.
+	 */
+	public EdgeList dense(final int n, final int maxStep, final int maxWeight) {
+		return generate(n, n, VERTEX_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int v = from; v < to; ++v) {
+					for (int w = 0; w < n; w += random.nextInt(maxStep) + 1) {
+						if (v != w) {
+							out.add(v, w, 1 + random.nextInt(maxWeight));
+						}
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates a rows x cols grid where each vertex has edges to its (up to
+	 * four) horizontal and vertical neighbours. Vertex r * cols + c is located
+	 * at (c, r).
+	 */
+	public EdgeList grid(final int rows, final int cols, final int maxWeight) {
+		int n = rows * cols;
+		EdgeList edges = generate(n, n, VERTEX_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int v = from; v < to; ++v) {
+					int r = v / cols;
+					int c = v % cols;
+					if (c > 0) out.add(v, v - 1, 1 + random.nextInt(maxWeight));
+					if (c < cols - 1) out.add(v, v + 1, 1 + random.nextInt(maxWeight));
+					if (r > 0) out.add(v, v - cols, 1 + random.nextInt(maxWeight));
+					if (r < rows - 1) out.add(v, v + cols, 1 + random.nextInt(maxWeight));
+				}
+			}
+		});
+
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int v = 0; v < n; ++v) {
+			x[v] = v % cols;
+			y[v] = v / cols;
+		}
+		edges.setCoordinates(x, y);
+		return edges;
+	}
+
+	/**
+	 * Creates a random geometric graph: n points placed uniformly in the unit
+	 * square with edges (in both directions) between all points at most radius
+	 * apart, weighted by their euclidean distance.
+	 * <p>
+	 * The expected degree is about n * PI * radius^2.
+	 */
+	public EdgeList geometric(final int n, final double radius) {
+		final double[] x = new double[n];
+		final double[] y = new double[n];
+		generate(n, n, VERTEX_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int v = from; v < to; ++v) {
+					x[v] = random.nextDouble();
+					y[v] = random.nextDouble();
+				}
+			}
+		});
+
+		// Bucket the points into cells of side >= radius, so all neighbours
+		// of a point lie in its own or one of the eight surrounding cells.
+		final int side = (int) Math.max(1, Math.min(1 / radius, Math.sqrt(n)));
+		final int[] cellStart = new int[side * side + 1];
+		final int[] points = new int[n];
+		for (int v = 0; v < n; ++v) {
+			++cellStart[cell(x[v], side) * side + cell(y[v], side) + 1];
+		}
+		for (int i = 0; i < side * side; ++i) {
+			cellStart[i + 1] += cellStart[i];
+		}
+		int[] next = new int[side * side];
+		System.arraycopy(cellStart, 0, next, 0, next.length);
+		for (int v = 0; v < n; ++v) {
+			points[next[cell(x[v], side) * side + cell(y[v], side)]++] = v;
+		}
+
+		final double r2 = radius * radius;
+		EdgeList edges = generate(n, n, VERTEX_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int v = from; v < to; ++v) {
+					int cx = cell(x[v], side);
+					int cy = cell(y[v], side);
+					for (int i = Math.max(0, cx - 1); i <= Math.min(side - 1, cx + 1); ++i) {
+						for (int j = Math.max(0, cy - 1); j <= Math.min(side - 1, cy + 1); ++j) {
+							int c = i * side + j;
+							for (int k = cellStart[c]; k < cellStart[c + 1]; ++k) {
+								int w = points[k];
+								double dx = x[v] - x[w];
+								double dy = y[v] - y[w];
+								double d2 = dx * dx + dy * dy;
+								if (w != v && d2 <= r2) {
+									out.add(v, w, Math.sqrt(d2));
+								}
+							}
+						}
+					}
+				}
+			}
+		});
+		edges.setCoordinates(x, y);
+		return edges;
+	}
+
+	private static int cell(double coordinate, int side) {
+		return Math.min(side - 1, (int) (coordinate * side));
+	}
+
+	/**
+	 * Creates a power-law graph with the R-MAT model: each of the edges picks
+	 * one of the four quadrants of the adjacency matrix with probabilities a,
+	 * b, c and 1 - a - b - c, recursively for all scale levels. Self-loops are
+	 * rejected.
+	 * 
+	 * @param scale the graph has 2^scale vertices
+	 * @param edges the number of edges to generate
+	 */
+	public EdgeList rmat(final int scale, long edges, final double a, final double b,
+			final double c, final int maxWeight) {
+		if (a + b + c > 1) {
+			throw new IllegalArgumentException("a + b + c must not exceed 1");
+		}
+		return generate(1 << scale, edges, EDGE_CHUNK, new ChunkGenerator() {
+
+			@Override
+			public void generate(SplittableRandom random, int from, int to, EdgeList out) {
+				for (int e = from; e < to; ++e) {
+					int u, v;
+					do {
+						u = 0;
+						v = 0;
+						for (int bit = 1 << (scale - 1); bit > 0; bit >>>= 1) {
+							double p = random.nextDouble();
+							if (p >= a + b + c) {
+								u |= bit;
+								v |= bit;
+							} else if (p >= a + b) {
+								u |= bit;
+							} else if (p >= a) {
+								v |= bit;
+							}
+						}
+					} while (u == v && scale > 0);
+					out.add(u, v, 1 + random.nextInt(maxWeight));
+				}
+			}
+		});
+	}
+}
@@ -1,9 +1,25 @@
 package de.raulin.rosario.graphs;
 
-public interface IGraph {
+/**
+ * A graph whose edges can be inserted, removed and reweighted.
+ * <p>
+ * {@link #version()} changes whenever an edge is inserted, removed or
+ * reweighted.
+ */
+public interface IGraph extends IStaticGraph {
 	void insertEdge(int from, int to, double weight);
-	boolean hasEdge(int from, int to);
-	Iterable<Edge> getAdjacent(int from);
-	int V();
-	int E();
+	
+	/**
+	 * Removes the edge from -> to.
+	 * 
+	 * @return true if the edge existed
+	 */
+	boolean removeEdge(int from, int to);
+	
+	/**
+	 * Changes the weight of the existing edge from -> to.
+	 * 
+	 * @return true if the edge existed, false if nothing was changed
+	 */
+	boolean setWeight(int from, int to, double weight);
 }
@@ -0,0 +1,23 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * A graph whose edges can be read, but not inserted or removed.
+ * <p>
+ * Algorithms that only read the graph take this interface, so they accept
+ * both the mutable {@link IGraph} implementations and static representations
+ * like {@link CSRGraph}.
+ * 
+ * @author Rosario Raulin
+ */
+public interface IStaticGraph {
+	boolean hasEdge(int from, int to);
+	Iterable<Edge> getAdjacent(int from);
+	int V();
+	int E();
+	
+	/**
+	 * Returns a counter that changes whenever the graph's edges change, so
+	 * results computed on this graph can detect that they are stale.
+	 */
+	int version();
+}
@@ -0,0 +1,313 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import de.raulin.rosario.heaps.BinaryHeap;
+import de.raulin.rosario.heaps.DoubleHeap;
+import de.raulin.rosario.heaps.PriorityQueue;
+
+/**
+ * Finds the k shortest simple paths between two vertices with Yen's
+ * algorithm, and shortest paths with a bounded number of edges.
+ * <p>
+ * Yen's algorithm derives new candidates from every accepted path by
+ * branching off at each of its vertices (the spur) while the edges taken by
+ * earlier paths with the same prefix and the prefix's vertices are blocked.
+ * All these spur searches share one set of arrays: blocked vertices and
+ * edges and the search state are tagged with a stamp, so starting a search
+ * costs O(1) instead of O(V), and every search stops at the target.
+ * <p>
+ * Note: Edge weights must not be negative. Instances are not thread-safe.
+ * 
+ * @author Rosario Raulin
+ */
+public class KShortestPaths {
+
+	private static final int SETTLED = -1;
+
+	private final CSRGraph graph;
+	private final double[] distTo;
+	private final int[] edgeTo;
+	private final int[] handle;
+	private final int[] seen;
+	private final int[] blockedVertex;
+	private final int[] blockedEdge;
+	private int stamp;
+	private final DoubleHeap heap;
+
+	// The hop-bounded search keeps every improvement of a vertex as a record:
+	// its layer (number of hops), its predecessor and the vertex's previous
+	// record.
+	private int[] recordLayer;
+	private int[] recordPred;
+	private int[] recordNext;
+	private int records;
+	private final int[] newest;
+
+	public KShortestPaths(IStaticGraph graph) {
+		this.graph = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		int n = graph.V();
+		this.distTo = new double[n];
+		this.edgeTo = new int[n];
+		this.handle = new int[n];
+		this.seen = new int[n];
+		this.blockedVertex = new int[n];
+		this.blockedEdge = new int[this.graph.E()];
+		this.stamp = 0;
+		this.heap = new DoubleHeap();
+		this.recordLayer = new int[16];
+		this.recordPred = new int[16];
+		this.recordNext = new int[16];
+		this.newest = new int[n];
+	}
+
+	/**
+	 * Returns up to k shortest simple paths from from to to, shortest first.
+	 */
+	public List<Path> find(int from, int to, int k) {
+		List<Path> accepted = new ArrayList<Path>(k);
+		if (k <= 0) return accepted;
+
+		nextStamp();
+		if (!search(from, to)) return accepted;
+		accepted.add(spurPath(null, 0, from, to));
+
+		PriorityQueue<Path> candidates = new BinaryHeap<Path>(new Comparator<Path>() {
+
+			@Override
+			public int compare(Path o1, Path o2) {
+				int c = Double.compare(o1.weight(), o2.weight());
+				return c != 0 ? c : o1.length() - o2.length();
+			}
+		});
+		Set<Path> known = new HashSet<Path>();
+		known.add(accepted.get(0));
+
+		while (accepted.size() < k) {
+			Path previous = accepted.get(accepted.size() - 1);
+			for (int i = 0; i + 1 < previous.length(); ++i) {
+				int spur = previous.vertex(i);
+				nextStamp();
+				for (int j = 0; j < i; ++j) {
+					blockedVertex[previous.vertex(j)] = stamp;
+				}
+				for (Path p : accepted) {
+					if (p.length() > i + 1 && samePrefix(p, previous, i)) {
+						blockEdges(spur, p.vertex(i + 1));
+					}
+				}
+				if (search(spur, to)) {
+					Path candidate = spurPath(previous, i, spur, to);
+					if (known.add(candidate)) {
+						candidates.insert(candidate);
+					}
+				}
+			}
+			if (candidates.isEmpty()) break;
+			accepted.add(candidates.extractMin());
+		}
+		return accepted;
+	}
+
+	/**
+	 * Returns a shortest path from from to to with at most maxHops edges or
+	 * null if there is none.
+	 * <p>
+	 * This is a Bellman-Ford search in layers: layer h relaxes the edges of
+	 * the vertices improved in layer h - 1, using their distances from before
+	 * layer h. It runs in O(maxHops * E) time but usually touches far fewer
+	 * edges.
+	 */
+	public Path hopBounded(int from, int to, int maxHops) {
+		nextStamp();
+		records = 0;
+		record(from, 0, ShortestPathTree.NONE);
+		distTo[from] = 0;
+
+		int[] frontier = new int[] { from };
+		int frontierSize = 1;
+		double[] frontierDist = new double[] { 0 };
+		int[] next = new int[16];
+
+		for (int layer = 1; layer <= maxHops && frontierSize > 0; ++layer) {
+			int nextSize = 0;
+			for (int f = 0; f < frontierSize; ++f) {
+				int v = frontier[f];
+				for (int i = graph.begin(v); i < graph.end(v); ++i) {
+					int w = graph.target(i);
+					double d = frontierDist[f] + graph.weight(i);
+					if (seen[w] == stamp && d >= distTo[w]) continue;
+
+					if (seen[w] != stamp || recordLayer[newest[w]] != layer) {
+						record(w, layer, v);
+						if (nextSize == next.length) {
+							next = Arrays.copyOf(next, 2 * nextSize);
+						}
+						next[nextSize++] = w;
+					} else {
+						recordPred[newest[w]] = v;
+					}
+					distTo[w] = d;
+				}
+			}
+
+			// Distances of the next layer must not see this layer's updates.
+			if (frontier.length < nextSize) {
+				frontier = new int[next.length];
+				frontierDist = new double[next.length];
+			}
+			for (int f = 0; f < nextSize; ++f) {
+				frontier[f] = next[f];
+				frontierDist[f] = distTo[next[f]];
+			}
+			frontierSize = nextSize;
+		}
+
+		if (seen[to] != stamp) return null;
+
+		int length = 0;
+		for (int v = to, layer = maxHops; v != ShortestPathTree.NONE; ++length) {
+			int r = recordAtMost(v, layer);
+			layer = recordLayer[r] - 1;
+			v = recordPred[r];
+		}
+		int[] vertices = new int[length];
+		double[] distances = new double[length];
+		int pos = length;
+		for (int v = to, layer = maxHops; v != ShortestPathTree.NONE;) {
+			int r = recordAtMost(v, layer);
+			vertices[--pos] = v;
+			layer = recordLayer[r] - 1;
+			v = recordPred[r];
+		}
+		for (int i = 1; i < length; ++i) {
+			distances[i] = distances[i - 1] + lightestEdge(vertices[i - 1], vertices[i]);
+		}
+		return new Path(vertices, distances);
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm from from to to, avoiding the vertices and
+	 * edges blocked with the current stamp.
+	 * 
+	 * @return true if to was reached
+	 */
+	private boolean search(int from, int to) {
+		heap.clear();
+		seen[from] = stamp;
+		distTo[from] = 0;
+		edgeTo[from] = ShortestPathTree.NONE;
+		handle[from] = heap.insert(0, from);
+
+		while (!heap.isEmpty()) {
+			int v = heap.extractMin();
+			handle[v] = SETTLED;
+			if (v == to) return true;
+
+			double d = distTo[v];
+			for (int i = graph.begin(v); i < graph.end(v); ++i) {
+				int w = graph.target(i);
+				if (blockedEdge[i] == stamp || blockedVertex[w] == stamp) continue;
+				double dw = d + graph.weight(i);
+				if (seen[w] != stamp) {
+					seen[w] = stamp;
+					distTo[w] = dw;
+					edgeTo[w] = v;
+					handle[w] = heap.insert(dw, w);
+				} else if (dw < distTo[w] && handle[w] != SETTLED) {
+					distTo[w] = dw;
+					edgeTo[w] = v;
+					heap.decreaseKey(handle[w], dw);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Joins the first i vertices of root and the path the last search found
+	 * from spur to to.
+	 */
+	private Path spurPath(Path root, int i, int spur, int to) {
+		int spurLength = 1;
+		for (int v = to; v != spur; v = edgeTo[v]) {
+			++spurLength;
+		}
+		double offset = root == null ? 0 : root.distance(i);
+		int[] vertices = new int[i + spurLength];
+		double[] distances = new double[i + spurLength];
+		for (int j = 0; j < i; ++j) {
+			vertices[j] = root.vertex(j);
+			distances[j] = root.distance(j);
+		}
+		int pos = vertices.length;
+		for (int v = to; pos > i; v = edgeTo[v]) {
+			--pos;
+			vertices[pos] = v;
+			distances[pos] = offset + distTo[v];
+		}
+		return new Path(vertices, distances);
+	}
+
+	private static boolean samePrefix(Path a, Path b, int i) {
+		for (int j = 0; j <= i; ++j) {
+			if (a.vertex(j) != b.vertex(j)) return false;
+		}
+		return true;
+	}
+
+	private void blockEdges(int from, int to) {
+		for (int i = graph.begin(from); i < graph.end(from); ++i) {
+			if (graph.target(i) == to) blockedEdge[i] = stamp;
+		}
+	}
+
+	private double lightestEdge(int from, int to) {
+		double lightest = Double.POSITIVE_INFINITY;
+		for (int i = graph.begin(from); i < graph.end(from); ++i) {
+			if (graph.target(i) == to) lightest = Math.min(lightest, graph.weight(i));
+		}
+		return lightest;
+	}
+
+	/**
+	 * Adds a record for v in layer with predecessor pred.
+	 */
+	private void record(int v, int layer, int pred) {
+		if (records == recordLayer.length) {
+			recordLayer = Arrays.copyOf(recordLayer, 2 * records);
+			recordPred = Arrays.copyOf(recordPred, 2 * records);
+			recordNext = Arrays.copyOf(recordNext, 2 * records);
+		}
+		recordLayer[records] = layer;
+		recordPred[records] = pred;
+		recordNext[records] = seen[v] == stamp ? newest[v] : -1;
+		newest[v] = records++;
+		seen[v] = stamp;
+	}
+
+	/**
+	 * Returns v's newest record from a layer not above layer.
+	 */
+	private int recordAtMost(int v, int layer) {
+		int r = newest[v];
+		while (recordLayer[r] > layer) {
+			r = recordNext[r];
+		}
+		return r;
+	}
+
+	private void nextStamp() {
+		if (++stamp == 0) {
+			Arrays.fill(seen, 0);
+			Arrays.fill(blockedVertex, 0);
+			Arrays.fill(blockedEdge, 0);
+			stamp = 1;
+		}
+	}
+}
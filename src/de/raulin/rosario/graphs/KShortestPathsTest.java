@@ -0,0 +1,149 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks {@link KShortestPaths} against a brute-force enumeration of all
+ * simple paths on small random graphs.
+ * <p>
+ * {@link KShortestPaths#find(int, int, int)} must return distinct simple
+ * paths of the graph whose weights are the k smallest of all simple paths,
+ * in order. {@link KShortestPaths#hopBounded(int, int, int)} must return a
+ * path of at most maxHops edges as light as the lightest such simple path,
+ * or null if there is none. Weights are small integers, so ties are common.
+ * <p>
+ * Usage: KShortestPathsTest [graphs [seed]]
+ */
+public class KShortestPathsTest {
+
+	public static void main(String[] args) {
+		int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : Dataset.DEFAULT_SEED;
+		Random random = new Random(seed);
+		long paths = 0;
+
+		for (int i = 0; i < graphs; ++i) {
+			int n = 1 + random.nextInt(8);
+			CSRGraph graph = new CSRGraph(randomGraph(n, random.nextInt(n * n + 1), random));
+			int from = random.nextInt(n);
+			int to = random.nextInt(n);
+			String name = "graph " + i + " from " + from + " to " + to;
+
+			// All simple paths as edge counts and weights, lightest first.
+			List<double[]> all = new ArrayList<double[]>();
+			enumerate(graph, from, to, new boolean[n], 0, 0, all);
+			List<Double> weights = new ArrayList<Double>();
+			for (double[] path : all) {
+				weights.add(path[1]);
+			}
+			Collections.sort(weights);
+			paths += all.size();
+
+			KShortestPaths ksp = new KShortestPaths(graph);
+			int k = 1 + random.nextInt(all.size() + 2);
+			List<Path> found = ksp.find(from, to, k);
+			check(found.size() == Math.min(k, all.size()), name + ": " + found.size()
+					+ " paths for k = " + k + ", expected " + Math.min(k, all.size()));
+			Set<Path> distinct = new HashSet<Path>();
+			for (int j = 0; j < found.size(); ++j) {
+				Path path = found.get(j);
+				checkPath(name, graph, path, from, to, true);
+				check(path.weight() == weights.get(j), name + ": path " + j + " weighs " + path.weight()
+						+ ", expected " + weights.get(j));
+				check(distinct.add(path), name + ": " + path + " found twice");
+			}
+
+			int maxHops = random.nextInt(n + 1);
+			double lightest = Double.POSITIVE_INFINITY;
+			for (double[] path : all) {
+				if (path[0] <= maxHops) lightest = Math.min(lightest, path[1]);
+			}
+			Path bounded = ksp.hopBounded(from, to, maxHops);
+			if (lightest == Double.POSITIVE_INFINITY) {
+				check(bounded == null, name + ": found " + bounded + " with at most " + maxHops + " hops");
+			} else {
+				check(bounded != null, name + ": no path with at most " + maxHops + " hops");
+				checkPath(name, graph, bounded, from, to, false);
+				check(bounded.length() - 1 <= maxHops, name + ": " + bounded + " has more than " + maxHops
+						+ " hops");
+				check(bounded.weight() == lightest, name + ": " + bounded + " with at most " + maxHops
+						+ " hops, expected weight " + lightest);
+			}
+		}
+		System.out.printf("%d graphs (%d simple paths): k shortest and hop-bounded paths match.\n",
+				graphs, paths);
+	}
+
+	/**
+	 * Returns a directed graph with up to edges edges of weight 1 to 4,
+	 * without self-loops and parallel edges.
+	 */
+	private static EdgeList randomGraph(int n, int edges, Random random) {
+		EdgeList list = new EdgeList(n);
+		Set<Long> taken = new HashSet<Long>();
+		for (int e = 0; e < edges && n > 1; ++e) {
+			int u = random.nextInt(n);
+			int v = random.nextInt(n);
+			if (u != v && taken.add((long) u * n + v)) {
+				list.add(u, v, 1 + random.nextInt(4));
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Adds the number of edges and the weight of every simple path from v to
+	 * to that extends the current one to paths.
+	 */
+	private static void enumerate(CSRGraph graph, int v, int to, boolean[] onPath, int hops,
+			double weight, List<double[]> paths) {
+		if (v == to) {
+			paths.add(new double[] { hops, weight });
+			return;
+		}
+		onPath[v] = true;
+		for (int i = graph.begin(v); i < graph.end(v); ++i) {
+			int w = graph.target(i);
+			if (!onPath[w]) {
+				enumerate(graph, w, to, onPath, hops + 1, weight + graph.weight(i), paths);
+			}
+		}
+		onPath[v] = false;
+	}
+
+	/**
+	 * Checks that path runs from from to to along edges of graph, that its
+	 * distances add up and, if simple is set, that it visits no vertex twice.
+	 */
+	private static void checkPath(String name, CSRGraph graph, Path path, int from, int to,
+			boolean simple) {
+		check(path.vertex(0) == from && path.vertex(path.length() - 1) == to, name + ": " + path
+				+ " has wrong ends");
+		check(path.distance(0) == 0, name + ": " + path + " does not start at distance 0");
+		Set<Integer> visited = new HashSet<Integer>();
+		visited.add(from);
+		for (int j = 1; j < path.length(); ++j) {
+			int u = path.vertex(j - 1);
+			int v = path.vertex(j);
+			double weight = Double.POSITIVE_INFINITY;
+			for (int i = graph.begin(u); i < graph.end(u); ++i) {
+				if (graph.target(i) == v) weight = graph.weight(i);
+			}
+			check(weight < Double.POSITIVE_INFINITY, name + ": " + path + " uses no edge " + u + "-" + v);
+			check(path.distance(j) == path.distance(j - 1) + weight, name + ": " + path
+					+ " has wrong distances");
+			check(visited.add(v) || !simple, name + ": " + path + " is not simple");
+		}
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}
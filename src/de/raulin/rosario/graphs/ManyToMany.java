@@ -0,0 +1,104 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes many-to-many distance tables by running one search per source in
+ * parallel.
+ * <p>
+ * The graph is converted to a {@link CSRGraph} once and, optionally,
+ * renumbered in breadth-first order to improve memory locality. Every task
+ * borrows a {@link SearchWorkspace} from the engine and returns it when done,
+ * so searches neither allocate nor reset the whole graph, and each search
+ * stops as soon as all targets are settled. The workspaces belong to the
+ * engine, not to the pool's threads, and are freed with it. Vertex IDs in queries and results are always those of the original
+ * graph.
+ * 
+ * @author Rosario Raulin
+ */
+public class ManyToMany {
+
+	private final CSRGraph graph;
+	private final Permutation permutation;
+	private final ExecutorService pool;
+	private final int threads;
+	private final int vertices;
+	// Idle workspaces, at most one per task running at the same time.
+	private final ConcurrentLinkedQueue<SearchWorkspace> workspaces = new ConcurrentLinkedQueue<SearchWorkspace>();
+
+	/**
+	 * Creates an engine using all processors of the machine and renumbering
+	 * the graph.
+	 */
+	public ManyToMany(IStaticGraph graph) {
+		this(graph, true, ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an engine.
+	 * 
+	 * @param graph the graph, which must not have negative edge weights
+	 * @param reorder true to renumber the vertices in breadth-first order
+	 * @param pool the executor running the searches
+	 * @param threads the number of searches to run at the same time
+	 */
+	public ManyToMany(IStaticGraph graph, boolean reorder, ExecutorService pool, int threads) {
+		CSRGraph csr = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		if (reorder) {
+			this.permutation = VertexOrdering.bfs(csr);
+			this.graph = csr.permute(permutation);
+		} else {
+			this.permutation = null;
+			this.graph = csr;
+		}
+		this.pool = pool;
+		this.threads = Math.max(1, threads);
+		this.vertices = graph.V();
+	}
+
+	/**
+	 * Computes the distances from all sources to all targets.
+	 */
+	public DistanceTable compute(int[] sources, int[] targets) {
+		final int[] s = permutation == null ? sources : permutation.toNew(sources);
+		final int[] t = permutation == null ? targets : permutation.toNew(targets);
+		final double[] distances = new double[s.length * t.length];
+		final AtomicInteger next = new AtomicInteger();
+
+		int workers = Math.min(threads, s.length);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(workers);
+		for (int w = 0; w < workers; ++w) {
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					SearchWorkspace workspace = workspaces.poll();
+					if (workspace == null) {
+						workspace = new SearchWorkspace(vertices);
+					}
+					try {
+						int i;
+						while ((i = next.getAndIncrement()) < s.length) {
+							workspace.search(graph, s[i], t);
+							for (int j = 0; j < t.length; ++j) {
+								distances[i * t.length + j] = workspace.distTo(t[j]);
+							}
+						}
+					} finally {
+						workspaces.offer(workspace);
+					}
+					return null;
+				}
+			});
+		}
+		Parallel.invokeAll(pool, tasks);
+
+		return new DistanceTable(sources.clone(), targets.clone(), distances);
+	}
+}
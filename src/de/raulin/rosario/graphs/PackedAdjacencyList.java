@@ -0,0 +1,262 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A mutable adjacency list storing the neighbours of each vertex in packed
+ * primitive arrays.
+ * <p>
+ * Vertices with few neighbours are searched linearly. Once a vertex has more
+ * than INDEX_THRESHOLD neighbours, an open-addressing (linear probing) index
+ * maps a target vertex to its position in the packed arrays. Removing an edge
+ * moves the last neighbour into the freed position, so
+ * {@link #insertEdge(int, int, double)}, {@link #removeEdge(int, int)},
+ * {@link #setWeight(int, int, double)} and {@link #hasEdge(int, int)} run in
+ * amortized O(1) without allocating.
+ *
+ * @author Rosario Raulin
+ */
+public class PackedAdjacencyList implements IGraph {
+
+	private static final int[] NO_TARGETS = new int[0];
+	private static final double[] NO_WEIGHTS = new double[0];
+	private static final int INDEX_THRESHOLD = 8;
+	private static final int MIN_CAPACITY = 4;
+	private static final int EMPTY = -1;
+
+	private final int[][] targets;
+	private final double[][] weights;
+	private final int[] degree;
+	private final int[][] index;
+	private int numberOfEdges;
+	private int version;
+
+	public PackedAdjacencyList(int size) {
+		this.targets = new int[size][];
+		this.weights = new double[size][];
+		this.degree = new int[size];
+		this.index = new int[size][];
+		this.numberOfEdges = 0;
+
+		Arrays.fill(targets, NO_TARGETS);
+		Arrays.fill(weights, NO_WEIGHTS);
+	}
+
+	@Override
+	public void insertEdge(int from, int to, double weight) {
+		int pos = find(from, to);
+		++version;
+		if (pos != EMPTY) {
+			weights[from][pos] = weight;
+			return;
+		}
+
+		pos = degree[from]++;
+		if (pos == targets[from].length) {
+			int capacity = Math.max(MIN_CAPACITY, 2 * pos);
+			targets[from] = Arrays.copyOf(targets[from], capacity);
+			weights[from] = Arrays.copyOf(weights[from], capacity);
+		}
+		targets[from][pos] = to;
+		weights[from][pos] = weight;
+		++numberOfEdges;
+
+		int[] table = index[from];
+		if (table != null) {
+			if (2 * degree[from] > table.length) {
+				rebuildIndex(from, 2 * table.length);
+			} else {
+				put(table, to, pos);
+			}
+		} else if (degree[from] > INDEX_THRESHOLD) {
+			rebuildIndex(from, Integer.highestOneBit(degree[from]) << 2);
+		}
+	}
+
+	@Override
+	public boolean removeEdge(int from, int to) {
+		int[] adj = targets[from];
+		int[] table = index[from];
+		int pos;
+
+		if (table == null) {
+			pos = find(from, to);
+			if (pos == EMPTY) return false;
+		} else {
+			int slot = slotOf(table, adj, to);
+			if (slot == EMPTY) return false;
+			pos = table[slot];
+			delete(table, adj, slot);
+		}
+
+		int last = --degree[from];
+		if (pos != last) {
+			// Fill the gap with the last neighbour so the arrays stay packed.
+			if (table != null) {
+				table[slotOf(table, adj, adj[last])] = pos;
+			}
+			adj[pos] = adj[last];
+			weights[from][pos] = weights[from][last];
+		}
+		--numberOfEdges;
+		++version;
+		return true;
+	}
+
+	@Override
+	public boolean setWeight(int from, int to, double weight) {
+		int pos = find(from, to);
+		if (pos == EMPTY) return false;
+		weights[from][pos] = weight;
+		++version;
+		return true;
+	}
+
+	@Override
+	public boolean hasEdge(int from, int to) {
+		return find(from, to) != EMPTY;
+	}
+
+	@Override
+	public Iterable<Edge> getAdjacent(final int from) {
+		return new Iterable<Edge>() {
+
+			@Override
+			public Iterator<Edge> iterator() {
+				return new Iterator<Edge>() {
+
+					private int pos = 0;
+
+					@Override
+					public boolean hasNext() {
+						return pos < degree[from];
+					}
+
+					@Override
+					public Edge next() {
+						if (!hasNext()) throw new NoSuchElementException();
+						Edge e = new Edge(from, targets[from][pos], weights[from][pos]);
+						++pos;
+						return e;
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of outgoing edges of v.
+	 */
+	public int degree(int v) {
+		return degree[v];
+	}
+
+	/**
+	 * Returns the target of v's i-th outgoing edge (0 <= i < degree(v)).
+	 * <p>
+	 * Note: Positions change when edges of v are removed.
+	 */
+	public int target(int v, int i) {
+		return targets[v][i];
+	}
+
+	/**
+	 * Returns the weight of v's i-th outgoing edge (0 <= i < degree(v)).
+	 */
+	public double weight(int v, int i) {
+		return weights[v][i];
+	}
+
+	@Override
+	public int V() {
+		return degree.length;
+	}
+
+	@Override
+	public int E() {
+		return numberOfEdges;
+	}
+
+	@Override
+	public int version() {
+		return version;
+	}
+
+	/**
+	 * Returns the position of to in from's packed arrays or EMPTY.
+	 */
+	private int find(int from, int to) {
+		int[] adj = targets[from];
+		int[] table = index[from];
+
+		if (table == null) {
+			for (int i = 0; i < degree[from]; ++i) {
+				if (adj[i] == to) return i;
+			}
+			return EMPTY;
+		} else {
+			int slot = slotOf(table, adj, to);
+			return slot == EMPTY ? EMPTY : table[slot];
+		}
+	}
+
+	private void rebuildIndex(int from, int tableSize) {
+		int[] table = new int[tableSize];
+		Arrays.fill(table, EMPTY);
+		for (int i = 0; i < degree[from]; ++i) {
+			put(table, targets[from][i], i);
+		}
+		index[from] = table;
+	}
+
+	private static int hash(int v) {
+		int h = v * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static void put(int[] table, int to, int pos) {
+		int mask = table.length - 1;
+		int slot = hash(to) & mask;
+		while (table[slot] != EMPTY) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = pos;
+	}
+
+	private static int slotOf(int[] table, int[] adj, int to) {
+		int mask = table.length - 1;
+		for (int slot = hash(to) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+			if (adj[table[slot]] == to) return slot;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Empties slot and shifts back the entries of its probe run, so no
+	 * tombstones are needed.
+	 */
+	private static void delete(int[] table, int[] adj, int slot) {
+		int mask = table.length - 1;
+		int hole = slot;
+		int curr = (slot + 1) & mask;
+
+		while (table[curr] != EMPTY) {
+			int home = hash(adj[table[curr]]) & mask;
+			// The entry may move into the hole if the hole lies on its
+			// probe path, i. e. between home and curr.
+			if (((curr - home) & mask) >= ((curr - hole) & mask)) {
+				table[hole] = table[curr];
+				hole = curr;
+			}
+			curr = (curr + 1) & mask;
+		}
+		table[hole] = EMPTY;
+	}
+}
@@ -0,0 +1,102 @@
+package de.raulin.rosario.graphs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks {@link PackedAdjacencyList} against {@link AdjacencyList} with
+ * random insertEdge, removeEdge, setWeight and hasEdge calls.
+ * <p>
+ * All edges start at a few vertices and go to many targets, so degrees grow
+ * far beyond the threshold at which a vertex gets its hash index. Phases
+ * that mostly insert alternate with phases that mostly remove, so the index
+ * is built, grows, gets holes from removals and is refilled. After every
+ * call the vertex's neighbours must match, via getAdjacent() as well as via
+ * degree(), target() and weight().
+ * <p>
+ * Usage: PackedAdjacencyListTest [operations [seed]]
+ */
+public class PackedAdjacencyListTest {
+
+	private static final int VERTICES = 300;
+	// Only these vertices get edges.
+	private static final int SOURCES = 4;
+
+	public static void main(String[] args) {
+		int operations = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : Dataset.DEFAULT_SEED;
+		Random random = new Random(seed);
+		PackedAdjacencyList packed = new PackedAdjacencyList(VERTICES);
+		AdjacencyList reference = new AdjacencyList(VERTICES);
+		int maxDegree = 0;
+
+		for (int i = 0; i < operations; ++i) {
+			// Phases of 5000 operations insert with 70%, 30% or 5% probability.
+			int insertPercent = new int[] { 70, 30, 5 }[(i / 5000) % 3];
+			int from = random.nextInt(SOURCES);
+			int to = random.nextInt(VERTICES);
+			double weight = random.nextInt(1000);
+			int roll = random.nextInt(100);
+			String where = "operation " + i;
+
+			if (roll < insertPercent) {
+				packed.insertEdge(from, to, weight);
+				reference.insertEdge(from, to, weight);
+			} else if (roll < 90) {
+				check(packed.removeEdge(from, to) == reference.removeEdge(from, to), where
+						+ ": removeEdge(" + from + ", " + to + ")");
+			} else if (roll < 95) {
+				check(packed.setWeight(from, to, weight) == reference.setWeight(from, to, weight), where
+						+ ": setWeight(" + from + ", " + to + ")");
+			} else {
+				check(packed.hasEdge(from, to) == reference.hasEdge(from, to), where + ": hasEdge("
+						+ from + ", " + to + ")");
+			}
+
+			check(packed.E() == reference.E(), where + ": E() is " + packed.E() + ", expected "
+					+ reference.E());
+			checkNeighbours(where, packed, reference, from);
+			maxDegree = Math.max(maxDegree, packed.degree(from));
+		}
+
+		for (int v = 0; v < VERTICES; ++v) {
+			checkNeighbours("at the end", packed, reference, v);
+			for (int w = 0; w < VERTICES; ++w) {
+				check(packed.hasEdge(v, w) == reference.hasEdge(v, w), "at the end: hasEdge(" + v
+						+ ", " + w + ")");
+			}
+		}
+		System.out.printf("%d operations match, degrees up to %d.\n", operations, maxDegree);
+	}
+
+	private static void checkNeighbours(String where, PackedAdjacencyList packed,
+			AdjacencyList reference, int v) {
+		Map<Integer, Double> expected = new HashMap<Integer, Double>();
+		for (Edge e : reference.getAdjacent(v)) {
+			expected.put(e.getTo(), e.getWeight());
+		}
+
+		Map<Integer, Double> actual = new HashMap<Integer, Double>();
+		for (Edge e : packed.getAdjacent(v)) {
+			check(e.getFrom() == v, where + ": edge of " + v + " starts at " + e.getFrom());
+			check(actual.put(e.getTo(), e.getWeight()) == null, where + ": duplicate edge " + v + "-"
+					+ e.getTo());
+		}
+		check(actual.equals(expected), where + ": neighbours of " + v + " are " + actual
+				+ ", expected " + expected);
+
+		check(packed.degree(v) == expected.size(), where + ": degree(" + v + ")");
+		for (int i = 0; i < packed.degree(v); ++i) {
+			Double weight = expected.get(packed.target(v, i));
+			check(weight != null && weight == packed.weight(v, i), where + ": neighbour " + i + " of "
+					+ v);
+		}
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs loops over index ranges in parallel.
+ * <p>
+ * The range is cut into chunks of a fixed size, independent of the number of
+ * threads, so work that derives its randomness from the chunk number gives the
+ * same result on every machine.
+ * 
+ * @author Rosario Raulin
+ */
+final class Parallel {
+
+	/**
+	 * The body of a parallel loop.
+	 */
+	interface Body {
+		/**
+		 * Processes the indices from (inclusive) to to (exclusive).
+		 * 
+		 * @param chunk the number of the chunk, from / chunkSize
+		 */
+		void run(int chunk, int from, int to);
+	}
+
+	private Parallel() {
+	}
+
+	/**
+	 * Returns the number of chunks of size chunkSize needed to cover n indices.
+	 */
+	static int chunks(long n, int chunkSize) {
+		return (int) ((n + chunkSize - 1) / chunkSize);
+	}
+
+	/**
+	 * Runs body for all chunks of the range 0 to n - 1 on pool and waits for
+	 * all of them to finish.
+	 * 
+	 * @throws RuntimeException whatever the first failing chunk threw
+	 */
+	static void forEach(ExecutorService pool, int n, final int chunkSize, final Body body) {
+		final int chunks = chunks(n, chunkSize);
+		if (chunks == 1) {
+			body.run(0, 0, n);
+			return;
+		}
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunks);
+		for (int c = 0; c < chunks; ++c) {
+			final int chunk = c;
+			final int from = c * chunkSize;
+			final int to = (int) Math.min(n, (long) from + chunkSize);
+			tasks.add(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					body.run(chunk, from, to);
+					return null;
+				}
+			});
+		}
+		invokeAll(pool, tasks);
+	}
+
+	/**
+	 * Runs all tasks on pool and returns their results in order.
+	 */
+	static <T> List<T> invokeAll(ExecutorService pool, List<? extends Callable<T>> tasks) {
+		try {
+			List<T> results = new ArrayList<T>(tasks.size());
+			for (Future<T> f : pool.invokeAll(tasks)) {
+				results.add(f.get());
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+}
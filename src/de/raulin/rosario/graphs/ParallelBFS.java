@@ -0,0 +1,171 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A direction-optimizing breadth-first search running in parallel.
+ * <p>
+ * Each level is expanded either top-down (the frontier's vertices claim their
+ * unvisited neighbours) or bottom-up (unvisited vertices look for a parent in
+ * the frontier among their incoming edges). Bottom-up steps pay off once the
+ * frontier is large, because most unvisited vertices find a parent after
+ * checking few edges. The direction is chosen per level with the heuristic of
+ * Beamer, Asanovic and Patterson.
+ * <p>
+ * Frontiers and the visited set are bitsets, scanned in parallel by chunks of
+ * words. The hop counts are returned as a {@link ShortestPathTree}, so the
+ * usual path methods apply.
+ * 
+ * @author Rosario Raulin
+ */
+public class ParallelBFS {
+
+	private static final int CHUNK_WORDS = 256;
+	// Switch to bottom-up once the frontier has more than 1/ALPHA of the
+	// unexplored edges, and back once it has less than 1/BETA of the vertices.
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+
+	private final CSRGraph graph;
+	private final CSRGraph transpose;
+	private final ExecutorService pool;
+
+	public ParallelBFS(IStaticGraph graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Prepares searches on graph. Edge weights are ignored.
+	 */
+	public ParallelBFS(IStaticGraph graph, ExecutorService pool) {
+		this.graph = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		this.transpose = this.graph.transpose();
+		this.pool = pool;
+	}
+
+	/**
+	 * Searches from source. The distance of a vertex in the result is its
+	 * number of hops from source.
+	 */
+	public ShortestPathTree search(int source) {
+		final int n = graph.V();
+		final int words = (n + 63) >>> 6;
+		final int chunks = Parallel.chunks(words, CHUNK_WORDS);
+		final int[] parent = new int[n];
+		final double[] depth = new double[n];
+		final AtomicLongArray visited = new AtomicLongArray(words);
+		// Per chunk: vertices added to the next frontier and their out-degrees.
+		final long[] found = new long[chunks];
+		final long[] foundEdges = new long[chunks];
+
+		Arrays.fill(parent, ShortestPathTree.NONE);
+		Arrays.fill(depth, Double.POSITIVE_INFINITY);
+		AtomicLongArray frontier = new AtomicLongArray(words);
+		depth[source] = 0;
+		set(visited, source);
+		set(frontier, source);
+
+		long frontierSize = 1;
+		long frontierEdges = degree(graph, source);
+		long unexploredEdges = graph.E() - frontierEdges;
+		boolean bottomUp = false;
+
+		for (int level = 1; frontierSize > 0; ++level) {
+			if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+				bottomUp = true;
+			} else if (bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+			}
+
+			final AtomicLongArray current = frontier;
+			final AtomicLongArray next = new AtomicLongArray(words);
+			final double d = level;
+			final boolean up = bottomUp;
+			Parallel.forEach(pool, words, CHUNK_WORDS, new Parallel.Body() {
+
+				@Override
+				public void run(int chunk, int from, int to) {
+					long count = 0, edges = 0;
+					for (int word = from; word < to; ++word) {
+						if (up) {
+							long unvisited = ~visited.get(word);
+							while (unvisited != 0) {
+								int w = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+								unvisited &= unvisited - 1;
+								if (w >= n) break;
+								for (int i = transpose.begin(w); i < transpose.end(w); ++i) {
+									int v = transpose.target(i);
+									if (get(current, v)) {
+										parent[w] = v;
+										depth[w] = d;
+										set(visited, w);
+										set(next, w);
+										++count;
+										edges += degree(graph, w);
+										break;
+									}
+								}
+							}
+						} else {
+							long bits = current.get(word);
+							while (bits != 0) {
+								int v = (word << 6) + Long.numberOfTrailingZeros(bits);
+								bits &= bits - 1;
+								for (int i = graph.begin(v); i < graph.end(v); ++i) {
+									int w = graph.target(i);
+									if (!get(visited, w) && set(visited, w)) {
+										parent[w] = v;
+										depth[w] = d;
+										set(next, w);
+										++count;
+										edges += degree(graph, w);
+									}
+								}
+							}
+						}
+					}
+					found[chunk] = count;
+					foundEdges[chunk] = edges;
+				}
+			});
+
+			frontier = next;
+			frontierSize = 0;
+			frontierEdges = 0;
+			for (int c = 0; c < chunks; ++c) {
+				frontierSize += found[c];
+				frontierEdges += foundEdges[c];
+				found[c] = 0;
+				foundEdges[c] = 0;
+			}
+			unexploredEdges -= frontierEdges;
+		}
+		return new ShortestPathTree(source, parent, depth);
+	}
+
+	private static boolean get(AtomicLongArray bits, int v) {
+		return (bits.get(v >>> 6) & (1L << v)) != 0;
+	}
+
+	/**
+	 * Sets v's bit.
+	 * 
+	 * @return true if the bit was not set before
+	 */
+	private static boolean set(AtomicLongArray bits, int v) {
+		int word = v >>> 6;
+		long mask = 1L << v;
+		while (true) {
+			long old = bits.get(word);
+			if ((old & mask) != 0) return false;
+			if (bits.compareAndSet(word, old, old | mask)) return true;
+		}
+	}
+
+	private static int degree(CSRGraph graph, int v) {
+		return graph.end(v) - graph.begin(v);
+	}
+}
@@ -0,0 +1,162 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks {@link ParallelBFS} against a sequential breadth-first search and
+ * {@link ConnectedComponents} against a sequential labelling.
+ * <p>
+ * The graphs are random graphs of degree 16 (large enough for the search to
+ * switch to bottom-up steps after a few levels and back), R-MAT graphs with
+ * skewed degrees and many isolated vertices, and disjoint unions of sparse
+ * random graphs, which have several components. Hop counts must match
+ * exactly; a predecessor may differ from the sequential one, but must be one
+ * level closer to the source and have an edge to its vertex.
+ * <p>
+ * Usage: ParallelTraversalTest [graphs [threads [seed]]]
+ */
+public class ParallelTraversalTest {
+
+	public static void main(String[] args) {
+		int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : Dataset.DEFAULT_SEED;
+		Random random = new Random(seed);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		for (int i = 0; i < graphs; ++i) {
+			GraphGenerator generator = new GraphGenerator(random.nextLong());
+			EdgeList edges;
+			String name;
+			switch (i % 3) {
+			case 0:
+				int n = 1 + random.nextInt(50000);
+				edges = generator.random(n, 16, 100);
+				name = "random(" + n + ", 16)";
+				break;
+			case 1:
+				int scale = 8 + random.nextInt(8);
+				edges = generator.rmat(scale, 8L << scale, 0.57, 0.19, 0.19, 100);
+				name = "rmat(" + scale + ")";
+				break;
+			default:
+				int blocks = 1 + random.nextInt(10);
+				edges = disjoint(generator, blocks, 1 + random.nextInt(5000), random);
+				name = blocks + " disjoint random graphs";
+			}
+			CSRGraph graph = new CSRGraph(edges);
+
+			ParallelBFS bfs = new ParallelBFS(graph, pool);
+			for (int k = 0; k < 3; ++k) {
+				int source = random.nextInt(graph.V());
+				checkSearch(name + " from " + source, graph, source, bfs.search(source));
+			}
+			checkComponents(name, graph, new ConnectedComponents(graph, pool));
+		}
+		pool.shutdown();
+		System.out.printf("%d graphs: searches and components match on %d threads.\n", graphs,
+				threads);
+	}
+
+	/**
+	 * Returns the disjoint union of blocks sparse random graphs with up to
+	 * size vertices each.
+	 */
+	private static EdgeList disjoint(GraphGenerator generator, int blocks, int size, Random random) {
+		EdgeList[] parts = new EdgeList[blocks];
+		int n = 0;
+		for (int b = 0; b < blocks; ++b) {
+			parts[b] = generator.random(1 + random.nextInt(size), 1 + random.nextInt(3), 100);
+			n += parts[b].V();
+		}
+		EdgeList union = new EdgeList(n);
+		int offset = 0;
+		for (EdgeList part : parts) {
+			for (int e = 0; e < part.size(); ++e) {
+				union.add(offset + part.from(e), offset + part.to(e), part.weight(e));
+			}
+			offset += part.V();
+		}
+		return union;
+	}
+
+	private static void checkSearch(String name, CSRGraph graph, int source, ShortestPathTree tree) {
+		int n = graph.V();
+		int[] hops = new int[n];
+		Arrays.fill(hops, -1);
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		hops[source] = 0;
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			int v = queue.poll();
+			for (int i = graph.begin(v); i < graph.end(v); ++i) {
+				int w = graph.target(i);
+				if (hops[w] < 0) {
+					hops[w] = hops[v] + 1;
+					queue.add(w);
+				}
+			}
+		}
+
+		for (int v = 0; v < n; ++v) {
+			if (hops[v] < 0) {
+				check(!tree.hasPathTo(v) && tree.predecessor(v) == ShortestPathTree.NONE,
+						name + ": " + v + " is not reachable");
+				continue;
+			}
+			check(tree.distTo(v) == hops[v], name + ": " + v + " has " + tree.distTo(v)
+					+ " hops, expected " + hops[v]);
+			int parent = tree.predecessor(v);
+			if (v == source) {
+				check(parent == ShortestPathTree.NONE, name + ": the source has a predecessor");
+			} else {
+				check(parent != ShortestPathTree.NONE && hops[parent] == hops[v] - 1
+						&& graph.hasEdge(parent, v), name + ": " + parent + " is no BFS parent of " + v);
+			}
+		}
+	}
+
+	private static void checkComponents(String name, CSRGraph graph, ConnectedComponents components) {
+		int n = graph.V();
+		CSRGraph transpose = graph.transpose();
+		int[] label = new int[n];
+		Arrays.fill(label, -1);
+		int count = 0;
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		// Vertices in ascending order, so each component gets its smallest vertex.
+		for (int s = 0; s < n; ++s) {
+			if (label[s] >= 0) continue;
+			++count;
+			label[s] = s;
+			queue.add(s);
+			while (!queue.isEmpty()) {
+				int v = queue.poll();
+				for (CSRGraph g : new CSRGraph[] { graph, transpose }) {
+					for (int i = g.begin(v); i < g.end(v); ++i) {
+						int w = g.target(i);
+						if (label[w] < 0) {
+							label[w] = s;
+							queue.add(w);
+						}
+					}
+				}
+			}
+		}
+
+		check(components.count() == count, name + ": " + components.count() + " components, expected "
+				+ count);
+		for (int v = 0; v < n; ++v) {
+			check(components.component(v) == label[v], name + ": " + v + " labelled "
+					+ components.component(v) + ", expected " + label[v]);
+		}
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}
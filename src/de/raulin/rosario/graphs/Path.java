@@ -0,0 +1,73 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+
+/**
+ * A path through a graph: its vertices from start to end and the distance of
+ * every vertex from the start.
+ * <p>
+ * Two paths are equal if they visit the same vertices in the same order.
+ * This is the one path type of the library, returned by
+ * {@link SearchWorkspace#path(int)}, {@link KShortestPaths},
+ * {@link ReorderedGraph} and the path query server.
+ * 
+ * @author Rosario Raulin
+ * @see KShortestPaths
+ */
+public class Path {
+
+	private final int[] vertices;
+	private final double[] distances;
+
+	Path(int[] vertices, double[] distances) {
+		this.vertices = vertices;
+		this.distances = distances;
+	}
+
+	/**
+	 * Returns the total weight of the path.
+	 */
+	public double weight() {
+		return distances[distances.length - 1];
+	}
+
+	/**
+	 * Returns the number of vertices on the path.
+	 */
+	public int length() {
+		return vertices.length;
+	}
+
+	/**
+	 * Returns the i-th vertex of the path.
+	 */
+	public int vertex(int i) {
+		return vertices[i];
+	}
+
+	/**
+	 * Returns the distance of the i-th vertex from the start of the path.
+	 */
+	public double distance(int i) {
+		return distances[i];
+	}
+
+	public int[] vertices() {
+		return vertices.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(vertices);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof Path && Arrays.equals(vertices, ((Path) other).vertices);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(vertices) + " (" + weight() + ")";
+	}
+}
@@ -0,0 +1,75 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * A renumbering of the vertices 0 to n - 1, given by a forward map from old
+ * to new IDs and the inverse backward map.
+ * 
+ * @author Rosario Raulin
+ * @see VertexOrdering
+ */
+public class Permutation {
+
+	private final int[] toNew;
+	private final int[] toOld;
+
+	/**
+	 * Creates the permutation that gives vertex order[i] the new ID i.
+	 * 
+	 * @throws IllegalArgumentException if order is not a permutation
+	 */
+	public Permutation(int[] order) {
+		this.toOld = order.clone();
+		this.toNew = new int[order.length];
+		for (int i = 0; i < toNew.length; ++i) {
+			toNew[i] = -1;
+		}
+		for (int i = 0; i < order.length; ++i) {
+			if (order[i] < 0 || order[i] >= order.length || toNew[order[i]] != -1) {
+				throw new IllegalArgumentException("not a permutation");
+			}
+			toNew[order[i]] = i;
+		}
+	}
+
+	/**
+	 * Returns the new ID of the vertex with ID v before renumbering.
+	 */
+	public int toNew(int v) {
+		return toNew[v];
+	}
+
+	/**
+	 * Returns the ID before renumbering of the vertex with new ID v.
+	 */
+	public int toOld(int v) {
+		return toOld[v];
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 */
+	public int size() {
+		return toNew.length;
+	}
+
+	/**
+	 * Returns the new IDs of the given vertices.
+	 */
+	public int[] toNew(int[] vertices) {
+		int[] result = new int[vertices.length];
+		for (int i = 0; i < vertices.length; ++i) {
+			result[i] = toNew[vertices[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Translates out[offset] to out[offset + length - 1] back to the IDs before
+	 * renumbering in place.
+	 */
+	public void toOld(int[] out, int offset, int length) {
+		for (int i = offset; i < offset + length; ++i) {
+			out[i] = toOld[out[i]];
+		}
+	}
+}
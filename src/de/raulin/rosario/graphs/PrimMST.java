@@ -0,0 +1,105 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import de.raulin.rosario.heaps.PQNode;
+import de.raulin.rosario.heaps.PriorityQueue;
+import de.raulin.rosario.heaps.PriorityQueueFactory;
+import de.raulin.rosario.heaps.PriorityQueues;
+
+/**
+ * Computes a minimum spanning forest with Prim's algorithm, keeping the
+ * vertices outside the tree in a priority queue keyed by their lightest edge
+ * into it.
+ * <p>
+ * The graph is read as undirected, so it must contain every edge in both
+ * directions with the same weight. Unconnected graphs get one tree per
+ * connected component.
+ * 
+ * @author Rosario Raulin
+ * @see BoruvkaMST
+ */
+public class PrimMST {
+
+	private final IStaticGraph graph;
+	private final int[] edgeTo;
+	private final double[] key;
+	private final boolean[] inTree;
+	private final PQNode<Integer>[] nodes;
+	private final List<Edge> edges;
+	private double weight;
+
+	public PrimMST(IStaticGraph graph) {
+		this(graph, PriorityQueues.BINARY);
+	}
+
+	/**
+	 * Computes the forest using the priority queues created by factory.
+	 */
+	@SuppressWarnings("unchecked")
+	public PrimMST(IStaticGraph graph, PriorityQueueFactory factory) {
+		this.graph = graph;
+		this.edgeTo = new int[graph.V()];
+		this.key = new double[graph.V()];
+		this.inTree = new boolean[graph.V()];
+		this.nodes = (PQNode<Integer>[]) new PQNode[graph.V()];
+		this.edges = new ArrayList<Edge>();
+		this.weight = 0;
+
+		PriorityQueue<Integer> pq = factory.create(graph.V(), new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(key[o1], key[o2]);
+			}
+		});
+
+		for (int v = 0; v < graph.V(); ++v) {
+			key[v] = Double.POSITIVE_INFINITY;
+			edgeTo[v] = ShortestPathTree.NONE;
+		}
+		for (int root = 0; root < graph.V(); ++root) {
+			if (inTree[root]) continue;
+			key[root] = 0;
+			nodes[root] = pq.insert(root);
+			while (!pq.isEmpty()) {
+				int v = pq.extractMin();
+				inTree[v] = true;
+				nodes[v] = null;
+				if (edgeTo[v] != ShortestPathTree.NONE) {
+					edges.add(new Edge(edgeTo[v], v, key[v]));
+					weight += key[v];
+				}
+				scan(pq, v);
+			}
+		}
+	}
+
+	private void scan(PriorityQueue<Integer> pq, int v) {
+		for (Edge e : graph.getAdjacent(v)) {
+			int w = e.getTo();
+			if (inTree[w] || e.getWeight() >= key[w]) continue;
+			key[w] = e.getWeight();
+			edgeTo[w] = v;
+			if (nodes[w] != null) pq.decreaseKey(nodes[w]);
+			else nodes[w] = pq.insert(w);
+		}
+	}
+
+	/**
+	 * Returns the edges of the forest, each directed away from its tree's
+	 * root.
+	 */
+	public Iterable<Edge> edges() {
+		return edges;
+	}
+
+	/**
+	 * Returns the total weight of the forest.
+	 */
+	public double weight() {
+		return weight;
+	}
+}
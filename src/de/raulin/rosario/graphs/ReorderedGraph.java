@@ -0,0 +1,119 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * A graph renumbered for memory locality, together with the maps between
+ * its vertex IDs and those of the original graph.
+ * <p>
+ * Searches run directly on the arrays of {@link #graph()}, whose IDs follow
+ * the chosen {@link VertexOrdering}, with a {@link SearchWorkspace}, so they
+ * do not allocate per edge or per queue entry. {@link #shortestPaths(int)}
+ * and {@link #pathTo(int, int, SearchWorkspace)} take and return original
+ * IDs, so callers never see the internal numbering.
+ * 
+ * @author Rosario Raulin
+ */
+public class ReorderedGraph {
+
+	private final CSRGraph graph;
+	private final Permutation permutation;
+
+	/**
+	 * Renumbers graph: vertex v becomes permutation.toNew(v).
+	 */
+	public ReorderedGraph(IStaticGraph graph, Permutation permutation) {
+		if (permutation.size() != graph.V()) {
+			throw new IllegalArgumentException("permutation does not match graph");
+		}
+		CSRGraph csr = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		this.graph = csr.permute(permutation);
+		this.permutation = permutation;
+	}
+
+	/**
+	 * Renumbers the graph given by edges along a Hilbert curve if it has
+	 * coordinates and by reverse Cuthill-McKee otherwise.
+	 */
+	public static ReorderedGraph of(EdgeList edges) {
+		CSRGraph graph = new CSRGraph(edges);
+		Permutation permutation = edges.hasCoordinates() ? VertexOrdering.hilbert(edges)
+				: VertexOrdering.rcm(graph);
+		return new ReorderedGraph(graph, permutation);
+	}
+
+	/**
+	 * Returns the renumbered graph.
+	 */
+	public CSRGraph graph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the map between original (old) and renumbered (new) IDs.
+	 */
+	public Permutation permutation() {
+		return permutation;
+	}
+
+	/**
+	 * Computes the shortest paths from the original vertex source and returns
+	 * them in original IDs. Unreachable vertices have distance
+	 * Double.POSITIVE_INFINITY.
+	 */
+	public ShortestPathTree shortestPaths(int source) {
+		return shortestPaths(source, new SearchWorkspace(graph.V()));
+	}
+
+	/**
+	 * Like {@link #shortestPaths(int)}, but runs the search in workspace, which
+	 * must have room for {@link #graph()}.
+	 */
+	public ShortestPathTree shortestPaths(int source, SearchWorkspace workspace) {
+		workspace.search(graph, permutation.toNew(source));
+
+		int n = graph.V();
+		int[] edgeTo = new int[n];
+		double[] distTo = new double[n];
+		for (int v = 0; v < n; ++v) {
+			int w = permutation.toNew(v);
+			int pred = workspace.predecessor(w);
+			edgeTo[v] = pred == ShortestPathTree.NONE ? ShortestPathTree.NONE : permutation.toOld(pred);
+			distTo[v] = workspace.distTo(w);
+		}
+		return new ShortestPathTree(source, edgeTo, distTo);
+	}
+
+	/**
+	 * Returns a shortest path between the original vertices from and to, or
+	 * null if there is none. The search stops once it reaches to.
+	 */
+	public Path pathTo(int from, int to, SearchWorkspace workspace) {
+		int target = permutation.toNew(to);
+		workspace.search(graph, permutation.toNew(from), new int[] { target });
+		Path path = workspace.path(target);
+		if (path == null) return null;
+
+		int[] vertices = new int[path.length()];
+		double[] distances = new double[vertices.length];
+		for (int i = 0; i < vertices.length; ++i) {
+			vertices[i] = permutation.toOld(path.vertex(i));
+			distances[i] = path.distance(i);
+		}
+		return new Path(vertices, distances);
+	}
+
+	/**
+	 * Translates a shortest-path tree on {@link #graph()} to original IDs.
+	 */
+	public ShortestPathTree translate(ShortestPathTree tree) {
+		int n = graph.V();
+		int[] edgeTo = new int[n];
+		double[] distTo = new double[n];
+		for (int v = 0; v < n; ++v) {
+			int w = permutation.toNew(v);
+			int pred = tree.predecessor(w);
+			edgeTo[v] = pred == ShortestPathTree.NONE ? ShortestPathTree.NONE : permutation.toOld(pred);
+			distTo[v] = tree.distTo(w);
+		}
+		return new ShortestPathTree(permutation.toOld(tree.source()), edgeTo, distTo);
+	}
+}
@@ -0,0 +1,58 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * A {@link SearchMetrics} that simply counts all events.
+ * <p>
+ * Note: This class is not thread-safe; use one instance per search or per
+ * thread.
+ * 
+ * @author Rosario Raulin
+ */
+public class SearchCounters implements SearchMetrics {
+
+	private long settled;
+	private long relaxed;
+	private long improved;
+
+	@Override
+	public void settled() {
+		++settled;
+	}
+
+	@Override
+	public void relaxed() {
+		++relaxed;
+	}
+
+	@Override
+	public void improved() {
+		++improved;
+	}
+
+	public long verticesSettled() {
+		return settled;
+	}
+
+	public long edgesRelaxed() {
+		return relaxed;
+	}
+
+	public long distancesImproved() {
+		return improved;
+	}
+
+	/**
+	 * Sets all counters back to zero.
+	 */
+	public void reset() {
+		settled = 0;
+		relaxed = 0;
+		improved = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("settled=%d relaxed=%d improved=%d", settled,
+				relaxed, improved);
+	}
+}
@@ -0,0 +1,55 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * Receives notifications about the work a shortest-path search performs.
+ * <p>
+ * {@link #NONE} disables instrumentation. As for heaps, the calls are guarded
+ * by {@link #ENABLED}, so they are compiled away unless the JVM runs with
+ * -Dheaps.metrics=true.
+ * 
+ * @author Rosario Raulin
+ * @see SearchCounters
+ * @see de.raulin.rosario.heaps.HeapMetrics
+ */
+public interface SearchMetrics {
+
+	/**
+	 * True if searches report to their metrics, see
+	 * {@link de.raulin.rosario.heaps.HeapMetrics#ENABLED}.
+	 */
+	public static final boolean ENABLED = de.raulin.rosario.heaps.HeapMetrics.ENABLED;
+
+	/**
+	 * Disables instrumentation.
+	 */
+	public static final SearchMetrics NONE = new SearchMetrics() {
+
+		@Override
+		public void settled() {
+		}
+
+		@Override
+		public void relaxed() {
+		}
+
+		@Override
+		public void improved() {
+		}
+	};
+
+	/**
+	 * Called whenever a vertex is removed from the queue, i. e. its distance
+	 * is final.
+	 */
+	public void settled();
+
+	/**
+	 * Called for every edge the search examines.
+	 */
+	public void relaxed();
+
+	/**
+	 * Called whenever examining an edge shortened the distance to its target.
+	 */
+	public void improved();
+}
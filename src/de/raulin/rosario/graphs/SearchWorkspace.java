@@ -0,0 +1,202 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+
+import de.raulin.rosario.heaps.DoubleHeap;
+
+/**
+ * The scratch space of Dijkstra's algorithm on a {@link CSRGraph}, reusable
+ * for any number of searches.
+ * <p>
+ * Distances, predecessors and queue handles are kept in primitive arrays
+ * sized once for the whole graph. A search only resets the vertices the
+ * previous search touched, so repeated short searches (e. g. to a few
+ * targets) cost time proportional to the part of the graph they explore, not
+ * to its size.
+ * <p>
+ * Note: Edge weights must not be negative. A workspace must not be used by
+ * several threads at the same time.
+ * 
+ * @author Rosario Raulin
+ */
+public class SearchWorkspace {
+
+	private static final int UNSEEN = -1;
+	private static final int SETTLED = -2;
+
+	private final double[] distTo;
+	private final int[] edgeTo;
+	// The vertex's handle in the heap, UNSEEN or SETTLED.
+	private final int[] state;
+	private final int[] touched;
+	private int touchedCount;
+	private final int[] targetMark;
+	private int stamp;
+	private final DoubleHeap heap;
+	private int source;
+
+	/**
+	 * Creates a workspace for graphs with up to vertices vertices.
+	 */
+	public SearchWorkspace(int vertices) {
+		this.distTo = new double[vertices];
+		this.edgeTo = new int[vertices];
+		this.state = new int[vertices];
+		this.touched = new int[vertices];
+		this.touchedCount = 0;
+		this.targetMark = new int[vertices];
+		this.stamp = 0;
+		this.heap = new DoubleHeap();
+		this.source = ShortestPathTree.NONE;
+
+		Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+		Arrays.fill(edgeTo, ShortestPathTree.NONE);
+		Arrays.fill(state, UNSEEN);
+	}
+
+	/**
+	 * Computes the shortest paths from source to all vertices.
+	 */
+	public void search(CSRGraph graph, int source) {
+		search(graph, source, null);
+	}
+
+	/**
+	 * Computes the shortest paths from source at least to all targets. The
+	 * search stops as soon as all targets are settled, so the distances of
+	 * other vertices may be too large afterwards.
+	 * 
+	 * @param targets the vertices of interest or null for all vertices
+	 */
+	public void search(CSRGraph graph, int source, int[] targets) {
+		reset();
+		this.source = source;
+
+		int remaining = 0;
+		if (targets != null) {
+			if (targets.length == 0) return;
+			if (++stamp == 0) {
+				Arrays.fill(targetMark, 0);
+				stamp = 1;
+			}
+			for (int t : targets) {
+				if (targetMark[t] != stamp) {
+					targetMark[t] = stamp;
+					++remaining;
+				}
+			}
+		}
+
+		touch(source);
+		distTo[source] = 0;
+		state[source] = heap.insert(0, source);
+
+		while (!heap.isEmpty()) {
+			int v = heap.extractMin();
+			state[v] = SETTLED;
+			if (targets != null && targetMark[v] == stamp && --remaining == 0) {
+				break;
+			}
+
+			double d = distTo[v];
+			for (int i = graph.begin(v), end = graph.end(v); i < end; ++i) {
+				int w = graph.target(i);
+				double dw = d + graph.weight(i);
+				if (dw < distTo[w]) {
+					distTo[w] = dw;
+					edgeTo[w] = v;
+					if (state[w] == UNSEEN) {
+						touch(w);
+						state[w] = heap.insert(dw, w);
+					} else {
+						heap.decreaseKey(state[w], dw);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the source of the last search.
+	 */
+	public int source() {
+		return source;
+	}
+
+	/**
+	 * Returns the length of the shortest path found to v, or
+	 * Double.POSITIVE_INFINITY if the last search did not reach v.
+	 */
+	public double distTo(int v) {
+		return distTo[v];
+	}
+
+	public boolean hasPathTo(int v) {
+		return distTo[v] != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Returns v's predecessor on the path found or ShortestPathTree.NONE.
+	 */
+	public int predecessor(int v) {
+		return edgeTo[v];
+	}
+
+	/**
+	 * Returns the number of vertices on the path found to v, 0 if the last
+	 * search did not reach v.
+	 */
+	public int pathLength(int v) {
+		if (!hasPathTo(v)) return 0;
+		int length = 1;
+		for (; edgeTo[v] != ShortestPathTree.NONE; v = edgeTo[v]) {
+			++length;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the path from source to to into out, starting at out[offset].
+	 * 
+	 * @return the number of vertices written, 0 if to was not reached
+	 * @throws ArrayIndexOutOfBoundsException if out is too small
+	 */
+	public int pathTo(int to, int[] out, int offset) {
+		int length = pathLength(to);
+		int pos = offset + length;
+		for (int v = to; pos > offset; v = edgeTo[v]) {
+			out[--pos] = v;
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the path found from source to to, or null if the last search
+	 * did not reach to.
+	 */
+	public Path path(int to) {
+		if (!hasPathTo(to)) return null;
+		int[] vertices = new int[pathLength(to)];
+		double[] distances = new double[vertices.length];
+		pathTo(to, vertices, 0);
+		for (int i = 0; i < vertices.length; ++i) {
+			distances[i] = distTo[vertices[i]];
+		}
+		return new Path(vertices, distances);
+	}
+
+	private void touch(int v) {
+		touched[touchedCount++] = v;
+	}
+
+	private void reset() {
+		for (int i = 0; i < touchedCount; ++i) {
+			int v = touched[i];
+			distTo[v] = Double.POSITIVE_INFINITY;
+			edgeTo[v] = ShortestPathTree.NONE;
+			state[v] = UNSEEN;
+		}
+		touchedCount = 0;
+		heap.clear();
+	}
+}
@@ -0,0 +1,126 @@
+package de.raulin.rosario.graphs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded cache of shortest-path trees keyed by their source vertex.
+ * <p>
+ * Trees are stored in their compact form ({@link ShortestPathTree}) and evicted
+ * in least-recently-used order once more than capacity trees are cached. The
+ * cache remembers the {@link IStaticGraph#version()} its trees were computed for and
+ * drops all of them as soon as the graph has been modified.
+ * <p>
+ * The cache is thread-safe, but the searches themselves run outside the lock,
+ * so two threads missing on the same source may both compute its tree.
+ * 
+ * @author Rosario Raulin
+ */
+public class ShortestPathCache {
+
+	private final IStaticGraph graph;
+	private final Map<Integer, ShortestPathTree> trees;
+	private int version;
+	private long hits;
+	private long misses;
+	private long evictions;
+	private long invalidations;
+
+	/**
+	 * Creates an empty cache for graph holding at most capacity trees.
+	 */
+	public ShortestPathCache(IStaticGraph graph, final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.graph = graph;
+		this.version = graph.version();
+		this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+				if (size() > capacity) {
+					++evictions;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the shortest-path tree rooted at source, running a search only
+	 * if no tree for the current version of the graph is cached.
+	 */
+	public ShortestPathTree get(int source) {
+		int searched;
+		synchronized (this) {
+			validate();
+			ShortestPathTree tree = trees.get(source);
+			if (tree != null) {
+				++hits;
+				return tree;
+			}
+			++misses;
+			searched = version;
+		}
+
+		ShortestPathTree tree = new DijkstraAlgorithm(graph, source).tree();
+
+		synchronized (this) {
+			validate();
+			// Don't cache a tree if the graph was modified during the search.
+			if (searched == version && graph.version() == searched) {
+				trees.put(source, tree);
+			}
+		}
+		return tree;
+	}
+
+	public Iterable<Integer> pathTo(int from, int to) {
+		return get(from).pathTo(to);
+	}
+
+	/**
+	 * Drops all cached trees.
+	 */
+	public synchronized void invalidate() {
+		if (!trees.isEmpty()) {
+			++invalidations;
+			trees.clear();
+		}
+	}
+
+	public synchronized int size() {
+		return trees.size();
+	}
+
+	public synchronized long hits() {
+		return hits;
+	}
+
+	public synchronized long misses() {
+		return misses;
+	}
+
+	public synchronized long evictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns how often the cache was emptied, either explicitly or because
+	 * the graph changed.
+	 */
+	public synchronized long invalidations() {
+		return invalidations;
+	}
+
+	private void validate() {
+		if (graph.version() != version) {
+			invalidate();
+			version = graph.version();
+		}
+	}
+}
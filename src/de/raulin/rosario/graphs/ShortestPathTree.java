@@ -0,0 +1,220 @@
+package de.raulin.rosario.graphs;
+
+import java.nio.BufferOverflowException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * An immutable shortest-path tree rooted at a single source, stored as a
+ * predecessor array and a distance array.
+ * <p>
+ * Unlike an Edge[] based tree, it needs two primitive arrays only, which makes
+ * it cheap to keep around (e. g. in a {@link ShortestPathCache}).
+ * 
+ * @author Rosario Raulin
+ */
+public class ShortestPathTree {
+
+	/**
+	 * The predecessor of the source and of unreachable vertices.
+	 */
+	public static final int NONE = -1;
+
+	private final int source;
+	private final int[] edgeTo;
+	private final double[] distTo;
+	private volatile int[] depth;
+
+	/**
+	 * Creates a tree from its predecessor and distance arrays. The arrays are
+	 * not copied and must not be modified afterwards.
+	 * 
+	 * @param source the root of the tree
+	 * @param edgeTo edgeTo[v] is v's predecessor on the path from source or NONE
+	 * @param distTo distTo[v] is the length of the shortest path to v or
+	 *        Double.POSITIVE_INFINITY
+	 */
+	public ShortestPathTree(int source, int[] edgeTo, double[] distTo) {
+		this.source = source;
+		this.edgeTo = edgeTo;
+		this.distTo = distTo;
+	}
+
+	public int source() {
+		return source;
+	}
+
+	/**
+	 * Returns true if there is a path from source to v.
+	 */
+	public boolean hasPathTo(int v) {
+		return v == source || edgeTo[v] != NONE;
+	}
+
+	/**
+	 * Returns the length of the shortest path from source to v or
+	 * Double.POSITIVE_INFINITY if v is unreachable.
+	 */
+	public double distTo(int v) {
+		return distTo[v];
+	}
+
+	/**
+	 * Returns v's predecessor on the shortest path from source or NONE.
+	 */
+	public int predecessor(int v) {
+		return edgeTo[v];
+	}
+
+	/**
+	 * Returns the vertices on the path from source to to, which is empty if to
+	 * is unreachable.
+	 */
+	public Iterable<Integer> pathTo(int to) {
+		LinkedList<Integer> path = new LinkedList<Integer>();
+		if (!hasPathTo(to)) {
+			return path;
+		}
+		
+		for (int v = to; v != NONE; v = edgeTo[v]) {
+			path.addFirst(v);
+		}
+		
+		return path;
+	}
+
+	/**
+	 * Returns the number of vertices on the path from source to v (1 for the
+	 * source itself) or 0 if v is unreachable.
+	 * <p>
+	 * Note: The first call walks the whole tree once in O(V); all further
+	 * calls run in O(1).
+	 */
+	public int pathLength(int v) {
+		return depths()[v];
+	}
+
+	/**
+	 * Writes the path from source to to into out, starting at out[offset].
+	 * 
+	 * @return the number of vertices written, 0 if to is unreachable
+	 * @throws ArrayIndexOutOfBoundsException if out is too small
+	 */
+	public int pathTo(int to, int[] out, int offset) {
+		int length = pathLength(to);
+		if (offset + length > out.length) {
+			throw new ArrayIndexOutOfBoundsException(offset + length - 1);
+		}
+		int pos = offset + length;
+		for (int v = to; pos > offset; v = edgeTo[v]) {
+			out[--pos] = v;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the path from source to to at out's current position and advances
+	 * the position past it.
+	 * 
+	 * @return the number of vertices written, 0 if to is unreachable
+	 * @throws BufferOverflowException if out has not enough space remaining
+	 */
+	public int pathTo(int to, IntBuffer out) {
+		int length = pathLength(to);
+		if (length > out.remaining()) {
+			throw new BufferOverflowException();
+		}
+		int start = out.position();
+		int pos = start + length;
+		for (int v = to; pos > start; v = edgeTo[v]) {
+			out.put(--pos, v);
+		}
+		out.position(start + length);
+		return length;
+	}
+
+	/**
+	 * Returns the number of vertices needed to store the paths to all targets,
+	 * i. e. the size of the out array required by {@link #pathsTo(int[], int[], int[])}.
+	 */
+	public int totalPathLength(int[] targets) {
+		int[] depth = depths();
+		int total = 0;
+		for (int t : targets) {
+			total += depth[t];
+		}
+		return total;
+	}
+
+	/**
+	 * Writes the paths to all targets back to back into out. The path to
+	 * targets[i] occupies out[offsets[i]] to out[offsets[i + 1] - 1], so it
+	 * is empty if targets[i] is unreachable.
+	 * 
+	 * @param targets the vertices to extract paths to
+	 * @param out the array receiving the paths, see {@link #totalPathLength(int[])}
+	 * @param offsets receives targets.length + 1 offsets into out
+	 * @return the total number of vertices written
+	 */
+	public int pathsTo(int[] targets, int[] out, int[] offsets) {
+		int[] depth = depths();
+		int pos = 0;
+		for (int i = 0; i < targets.length; ++i) {
+			offsets[i] = pos;
+			pos += depth[targets[i]];
+		}
+		offsets[targets.length] = pos;
+		if (pos > out.length) {
+			throw new ArrayIndexOutOfBoundsException(pos - 1);
+		}
+
+		for (int i = 0; i < targets.length; ++i) {
+			int end = offsets[i + 1];
+			for (int v = targets[i]; end > offsets[i]; v = edgeTo[v]) {
+				out[--end] = v;
+			}
+		}
+		return pos;
+	}
+
+	private int[] depths() {
+		int[] result = depth;
+		if (result == null) {
+			result = computeDepths();
+			depth = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the number of vertices on every path with a single pass over the
+	 * tree: each vertex is pushed at most once while walking up to the first
+	 * vertex whose depth is already known.
+	 */
+	private int[] computeDepths() {
+		final int unknown = -1;
+		int[] result = new int[edgeTo.length];
+		int[] stack = new int[edgeTo.length];
+		Arrays.fill(result, unknown);
+		result[source] = 1;
+
+		for (int v = 0; v < edgeTo.length; ++v) {
+			int top = 0;
+			int u = v;
+			while (u != NONE && result[u] == unknown) {
+				stack[top++] = u;
+				u = edgeTo[u];
+			}
+
+			// u == NONE means the walk ended at a vertex other than source,
+			// so everything on the stack is unreachable.
+			int d = u == NONE ? 0 : result[u];
+			while (top > 0) {
+				if (d > 0) ++d;
+				result[stack[--top]] = d;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,175 @@
+package de.raulin.rosario.graphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks {@link PrimMST} and {@link BoruvkaMST} against Kruskal's algorithm.
+ * <p>
+ * The graphs are disjoint unions of random graphs, so they have several
+ * components, with weights from 1 to 3, so most weights are equal. Both
+ * algorithms must return a forest of the graph's edges with n - c edges for c
+ * components and the same weight as Kruskal's. With edges ordered by weight
+ * and then by their endpoints the minimum spanning forest is unique, so
+ * Boruvka must also return exactly the edges Kruskal picks in that order.
+ * <p>
+ * Usage: SpanningTreeTest [graphs [threads [seed]]]
+ */
+public class SpanningTreeTest {
+
+	private static final Comparator<Edge> ORDER = new Comparator<Edge>() {
+
+		@Override
+		public int compare(Edge e, Edge f) {
+			if (e.getWeight() != f.getWeight()) return e.getWeight() < f.getWeight() ? -1 : 1;
+			if (low(e) != low(f)) return low(e) < low(f) ? -1 : 1;
+			return high(e) < high(f) ? -1 : (high(e) == high(f) ? 0 : 1);
+		}
+	};
+
+	public static void main(String[] args) {
+		int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		long seed = args.length > 2 ? Long.parseLong(args[2]) : Dataset.DEFAULT_SEED;
+		Random random = new Random(seed);
+		ForkJoinPool pool = new ForkJoinPool(threads);
+
+		for (int i = 0; i < graphs; ++i) {
+			GraphGenerator generator = new GraphGenerator(random.nextLong());
+			int blocks = 1 + random.nextInt(6);
+			CSRGraph graph = new CSRGraph(undirected(generator, blocks, 1 + random.nextInt(3000), random));
+			String name = "graph " + i + " (" + graph.V() + " vertices, " + blocks + " blocks)";
+
+			List<Edge> expected = kruskal(graph);
+			double weight = 0;
+			for (Edge e : expected) {
+				weight += e.getWeight();
+			}
+
+			PrimMST prim = new PrimMST(graph);
+			checkForest(name + ", Prim", graph, prim.edges(), expected.size());
+			check(prim.weight() == weight, name + ", Prim: weight " + prim.weight() + ", expected " + weight);
+
+			BoruvkaMST boruvka = new BoruvkaMST(graph, pool);
+			checkForest(name + ", Boruvka", graph, boruvka.edges(), expected.size());
+			check(boruvka.weight() == weight, name + ", Boruvka: weight " + boruvka.weight()
+					+ ", expected " + weight);
+			Set<String> picked = new HashSet<String>();
+			for (Edge e : expected) {
+				picked.add(key(e));
+			}
+			for (Edge e : boruvka.edges()) {
+				check(picked.contains(key(e)), name + ", Boruvka: picked " + key(e) + " instead of Kruskal's edges");
+			}
+		}
+		pool.shutdown();
+		System.out.printf("%d graphs: Prim and Boruvka match Kruskal.\n", graphs);
+	}
+
+	/**
+	 * Returns the disjoint union of blocks random graphs with up to size
+	 * vertices each, with every edge in both directions.
+	 */
+	private static EdgeList undirected(GraphGenerator generator, int blocks, int size, Random random) {
+		EdgeList[] parts = new EdgeList[blocks];
+		int n = 0;
+		for (int b = 0; b < blocks; ++b) {
+			parts[b] = generator.random(1 + random.nextInt(size), 1 + random.nextInt(3), 3);
+			n += parts[b].V();
+		}
+		EdgeList union = new EdgeList(n);
+		int offset = 0;
+		for (EdgeList part : parts) {
+			for (int e = 0; e < part.size(); ++e) {
+				union.add(offset + part.from(e), offset + part.to(e), part.weight(e));
+				union.add(offset + part.to(e), offset + part.from(e), part.weight(e));
+			}
+			offset += part.V();
+		}
+		return union;
+	}
+
+	private static List<Edge> kruskal(CSRGraph graph) {
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int v = 0; v < graph.V(); ++v) {
+			for (Edge e : graph.getAdjacent(v)) {
+				edges.add(e);
+			}
+		}
+		Collections.sort(edges, ORDER);
+
+		int[] parent = identity(graph.V());
+		List<Edge> forest = new ArrayList<Edge>();
+		for (Edge e : edges) {
+			int a = find(parent, e.getFrom());
+			int b = find(parent, e.getTo());
+			if (a != b) {
+				parent[a] = b;
+				forest.add(e);
+			}
+		}
+		return forest;
+	}
+
+	/**
+	 * Checks that edges are edges of graph, contain no cycle and that there
+	 * are expected of them.
+	 */
+	private static void checkForest(String name, CSRGraph graph, Iterable<Edge> edges, int expected) {
+		int[] parent = identity(graph.V());
+		int count = 0;
+		for (Edge e : edges) {
+			boolean exists = false;
+			for (Edge f : graph.getAdjacent(e.getFrom())) {
+				exists |= f.getTo() == e.getTo() && f.getWeight() == e.getWeight();
+			}
+			check(exists, name + ": " + key(e) + " is not an edge of the graph");
+			int a = find(parent, e.getFrom());
+			int b = find(parent, e.getTo());
+			check(a != b, name + ": " + key(e) + " closes a cycle");
+			parent[a] = b;
+			++count;
+		}
+		check(count == expected, name + ": " + count + " edges, expected " + expected);
+	}
+
+	private static int[] identity(int n) {
+		int[] parent = new int[n];
+		for (int v = 0; v < n; ++v) {
+			parent[v] = v;
+		}
+		return parent;
+	}
+
+	private static int find(int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	private static int low(Edge e) {
+		return Math.min(e.getFrom(), e.getTo());
+	}
+
+	private static int high(Edge e) {
+		return Math.max(e.getFrom(), e.getTo());
+	}
+
+	private static String key(Edge e) {
+		return low(e) + "-" + high(e) + " (" + e.getWeight() + ")";
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}
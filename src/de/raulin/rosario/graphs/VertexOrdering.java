@@ -0,0 +1,180 @@
+package de.raulin.rosario.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Computes vertex orders that place vertices which are close in the graph
+ * close to each other in memory.
+ * <p>
+ * Searches access distTo[w] and friends for the neighbours w of the current
+ * vertex. With IDs in input order these accesses are effectively random on
+ * large graphs; after renumbering with one of these orders most of them hit
+ * the same or adjacent cache lines.
+ * 
+ * @author Rosario Raulin
+ * @see CSRGraph#permute(Permutation)
+ * @see ReorderedGraph
+ */
+public final class VertexOrdering {
+
+	// Curve positions stay below 2^30, so keys are positive and sort correctly
+	// as signed longs.
+	private static final int HILBERT_SIDE = 1 << 15;
+
+	private VertexOrdering() {
+	}
+
+	/**
+	 * Orders the vertices by breadth-first search, starting from vertex 0 and
+	 * then from the smallest vertex not reached yet.
+	 */
+	public static Permutation bfs(CSRGraph graph) {
+		int n = graph.V();
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		int tail = 0;
+
+		for (int root = 0; root < n; ++root) {
+			if (visited[root]) continue;
+			visited[root] = true;
+			int head = tail;
+			order[tail++] = root;
+			while (head < tail) {
+				int v = order[head++];
+				for (int i = graph.begin(v); i < graph.end(v); ++i) {
+					int w = graph.target(i);
+					if (!visited[w]) {
+						visited[w] = true;
+						order[tail++] = w;
+					}
+				}
+			}
+		}
+		return new Permutation(order);
+	}
+
+	/**
+	 * Orders the vertices by reverse Cuthill-McKee: a breadth-first search
+	 * from a vertex of minimum degree per component that visits neighbours by
+	 * increasing degree, reversed at the end. This keeps the neighbours of
+	 * each vertex within a narrow band of IDs.
+	 * <p>
+	 * Note: Only outgoing edges are followed, so the order is best for
+	 * symmetric graphs.
+	 */
+	public static Permutation rcm(CSRGraph graph) {
+		final int n = graph.V();
+		int[] order = new int[n];
+		boolean[] visited = new boolean[n];
+		long[] scratch = new long[0];
+
+		// Roots by increasing degree, ties broken by ID.
+		long[] roots = new long[n];
+		for (int v = 0; v < n; ++v) {
+			roots[v] = (long) degree(graph, v) << 32 | v;
+		}
+		Arrays.sort(roots);
+
+		int tail = 0;
+		for (long key : roots) {
+			int root = (int) key;
+			if (visited[root]) continue;
+			visited[root] = true;
+			int head = tail;
+			order[tail++] = root;
+			while (head < tail) {
+				int v = order[head++];
+				int found = 0;
+				if (scratch.length < degree(graph, v)) {
+					scratch = new long[degree(graph, v)];
+				}
+				for (int i = graph.begin(v); i < graph.end(v); ++i) {
+					int w = graph.target(i);
+					if (!visited[w]) {
+						visited[w] = true;
+						scratch[found++] = (long) degree(graph, w) << 32 | w;
+					}
+				}
+				Arrays.sort(scratch, 0, found);
+				for (int i = 0; i < found; ++i) {
+					order[tail++] = (int) scratch[i];
+				}
+			}
+		}
+
+		for (int i = 0, j = n - 1; i < j; ++i, --j) {
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+		return new Permutation(order);
+	}
+
+	/**
+	 * Orders the vertices along a Hilbert curve through their coordinates, so
+	 * vertices close to each other in the plane get close IDs.
+	 * 
+	 * @throws IllegalArgumentException if edges has no coordinates
+	 */
+	public static Permutation hilbert(EdgeList edges) {
+		if (!edges.hasCoordinates()) {
+			throw new IllegalArgumentException("edge list has no coordinates");
+		}
+		int n = edges.V();
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int v = 0; v < n; ++v) {
+			minX = Math.min(minX, edges.x(v));
+			maxX = Math.max(maxX, edges.x(v));
+			minY = Math.min(minY, edges.y(v));
+			maxY = Math.max(maxY, edges.y(v));
+		}
+		// One scale for both axes, and a power of two: points on an integer
+		// grid then fall into aligned cells of the curve, so grid neighbours
+		// stay curve neighbours.
+		double range = Math.max(maxX - minX, maxY - minY);
+		double scale = range > 0 ? Math.scalb(1.0, Math.getExponent((HILBERT_SIDE - 1) / range)) : 1;
+
+		long[] keys = new long[n];
+		for (int v = 0; v < n; ++v) {
+			int x = (int) ((edges.x(v) - minX) * scale);
+			int y = (int) ((edges.y(v) - minY) * scale);
+			keys[v] = hilbertIndex(x, y) << 32 | v;
+		}
+		Arrays.sort(keys);
+
+		int[] order = new int[n];
+		for (int i = 0; i < n; ++i) {
+			order[i] = (int) keys[i];
+		}
+		return new Permutation(order);
+	}
+
+	/**
+	 * Returns the position of (x, y) on the Hilbert curve filling a
+	 * HILBERT_SIDE x HILBERT_SIDE grid.
+	 */
+	private static long hilbertIndex(int x, int y) {
+		long d = 0;
+		for (int s = HILBERT_SIDE / 2; s > 0; s /= 2) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			// Rotate the quadrant so the curve stays continuous.
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+
+	private static int degree(CSRGraph graph, int v) {
+		return graph.end(v) - graph.begin(v);
+	}
+}
@@ -0,0 +1,64 @@
+package de.raulin.rosario.graphs;
+
+/**
+ * Checks the vertex orderings and {@link ReorderedGraph} on generated graphs.
+ * <p>
+ * On a 2^k x 2^k grid, consecutive vertices of the Hilbert order must be grid
+ * neighbours. Searches on reordered graphs must find the same distances as on
+ * the original graph.
+ * <p>
+ * Usage: VertexOrderingTest [k [seed]]
+ */
+public class VertexOrderingTest {
+
+	public static void main(String[] args) {
+		int k = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : Dataset.DEFAULT_SEED;
+		int side = 1 << k;
+		GraphGenerator generator = new GraphGenerator(seed);
+
+		EdgeList grid = generator.grid(side, side, 10);
+		Permutation hilbert = VertexOrdering.hilbert(grid);
+		for (int i = 1; i < hilbert.size(); ++i) {
+			int a = hilbert.toOld(i - 1);
+			int b = hilbert.toOld(i);
+			int distance = Math.abs(a % side - b % side) + Math.abs(a / side - b / side);
+			if (distance != 1) {
+				throw new IllegalStateException("Hilbert order jumps from " + a + " to " + b);
+			}
+		}
+		System.out.printf("Hilbert order of a %dx%d grid is continuous.\n", side, side);
+
+		check("grid, Hilbert", grid, ReorderedGraph.of(grid));
+		EdgeList geometric = generator.geometric(side * side, 1.5 / side);
+		check("geometric, Hilbert", geometric, ReorderedGraph.of(geometric));
+		EdgeList random = generator.random(side * side, 4, 100);
+		check("random, RCM", random, ReorderedGraph.of(random));
+		CSRGraph graph = new CSRGraph(random);
+		check("random, BFS", random, new ReorderedGraph(graph, VertexOrdering.bfs(graph)));
+	}
+
+	private static void check(String name, EdgeList edges, ReorderedGraph reordered) {
+		CSRGraph graph = new CSRGraph(edges);
+		SearchWorkspace workspace = new SearchWorkspace(graph.V());
+		int step = Math.max(1, graph.V() / 8);
+		for (int source = 0; source < graph.V(); source += step) {
+			ShortestPathTree expected = new DijkstraAlgorithm(graph, source).tree();
+			ShortestPathTree actual = reordered.shortestPaths(source, workspace);
+			for (int v = 0; v < graph.V(); ++v) {
+				if (expected.hasPathTo(v) != actual.hasPathTo(v)
+						|| expected.hasPathTo(v) && Math.abs(expected.distTo(v) - actual.distTo(v)) > 1e-9) {
+					throw new IllegalStateException(name + ": wrong distance from " + source + " to " + v);
+				}
+			}
+			int target = (source * 31 + 7) % graph.V();
+			Path path = reordered.pathTo(source, target, workspace);
+			if (expected.hasPathTo(target) != (path != null)
+					|| path != null && (path.vertex(0) != source || path.vertex(path.length() - 1) != target
+							|| Math.abs(path.weight() - expected.distTo(target)) > 1e-9)) {
+				throw new IllegalStateException(name + ": wrong path from " + source + " to " + target);
+			}
+		}
+		System.out.printf("%s: distances match.\n", name);
+	}
+}
@@ -1,11 +1,13 @@
 package de.raulin.rosario.heaps;
 
+import java.util.Arrays;
 import java.util.Comparator;
 
 public class BinaryHeap<T> implements PriorityQueue<T> {
 
 	private final static int UNKNOWN_POS = -1;
 	private static final int DEFAULT_SIZE = 16;
+	private static final int DRAIN_SORT_CUTOFF = 4;
 
 	class BinaryNode extends PQNode<T> {
 		private int pos;
@@ -22,16 +24,25 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 
 	private int size;
 	private Object[] data;
-	private Comparator<T> comp;
+	protected final Comparator<T> comp;
+	private final HeapMetrics metrics;
 
 	public BinaryHeap(Comparator<T> comp) {
 		this(DEFAULT_SIZE, comp);
 	}
 
 	public BinaryHeap(int size, Comparator<T> comp) {
+		this(size, comp, HeapMetrics.NONE);
+	}
+
+	/**
+	 * Creates an empty heap reporting its operations to metrics.
+	 */
+	public BinaryHeap(int size, Comparator<T> comp, HeapMetrics metrics) {
 		this.size = 0;
 		this.data = new Object[size + 1];
 		this.comp = comp;
+		this.metrics = metrics;
 	}
 
 	private void resize(int to) {
@@ -60,18 +71,108 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 	@Override
 	public T extractMin() {
 		if (size > 0) {
-			T min = get(data, 1).element;
+			BinaryNode min = get(data, 1);
 
+			if (HeapMetrics.ENABLED) metrics.extractedMin();
 			exch(1, size--);
 			data[size + 1] = null;
+			min.pos = UNKNOWN_POS;
 			sink(1);
 
-			return min;
+			return min.element;
 		} else {
 			return null;
 		}
 	}
 
+	@Override
+	public int extractMin(int k, T[] out) {
+		int n = Math.min(k, size);
+		for (int i = 0; i < n; ++i) {
+			out[i] = extractMin();
+		}
+		return n;
+	}
+
+	/**
+	 * Removes all elements and writes them in ascending order to out. Sorting
+	 * the whole array at once beats extracting the elements one by one,
+	 * except for heaps smaller than DRAIN_SORT_CUTOFF.
+	 */
+	@Override
+	public int drainSorted(T[] out) {
+		if (size < DRAIN_SORT_CUTOFF) {
+			if (out.length < size) {
+				throw new IllegalArgumentException("output array too small");
+			}
+			return extractMin(size, out);
+		}
+		int n = takeAll(out);
+		Arrays.sort(out, 0, n, comp);
+		return n;
+	}
+
+	/**
+	 * Moves all elements to out (in heap order) and empties the heap.
+	 */
+	private int takeAll(T[] out) {
+		if (out.length < size) {
+			throw new IllegalArgumentException("output array too small");
+		}
+		int n = size;
+		for (int i = 1; i <= n; ++i) {
+			BinaryNode node = get(data, i);
+			node.pos = UNKNOWN_POS;
+			out[i - 1] = node.element;
+			data[i] = null;
+		}
+		size = 0;
+		return n;
+	}
+
+	/**
+	 * Copies all elements (in heap order) to out without removing them.
+	 */
+	int copyTo(T[] out) {
+		for (int i = 1; i <= size; ++i) {
+			out[i - 1] = get(data, i).element;
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all elements. Their handles become invalid.
+	 */
+	public void clear() {
+		for (int i = 1; i <= size; ++i) {
+			get(data, i).pos = UNKNOWN_POS;
+			data[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Replaces the smallest element with element in O(log(n)), which is
+	 * cheaper than {@link #extractMin()} followed by {@link #insert(Object)}.
+	 * The handle of the replaced element becomes invalid.
+	 * <p>
+	 * Note: The heap must not be empty.
+	 * 
+	 * @param element the element to be inserted
+	 * @return a handle needed to use {@link #decreaseKey(PQNode)}.
+	 */
+	protected PQNode<T> replaceMin(T element) {
+		BinaryNode newElement = new BinaryNode(element);
+		get(data, 1).pos = UNKNOWN_POS;
+		newElement.pos = 1;
+		data[1] = newElement;
+		if (HeapMetrics.ENABLED) metrics.extractedMin();
+		sink(1);
+		if (HeapMetrics.ENABLED) metrics.inserted(size);
+
+		return newElement;
+	}
+
 	private void sink(int k) {
 		while (2 * k <= size) {
 			int j = 2 * k;
@@ -80,6 +181,7 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 			if (!more(k, j))
 				break;
 			exch(k, j);
+			if (HeapMetrics.ENABLED) metrics.sank();
 			k = j;
 		}
 	}
@@ -90,6 +192,7 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 
 		atI.pos = j;
 		atJ.pos = i;
+		if (HeapMetrics.ENABLED) metrics.exchanged();
 
 		data[i] = atJ;
 		data[j] = atI;
@@ -98,7 +201,6 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 	@Override
 	public PQNode<T> insert(T element) {
 		if (size == data.length - 1) {
-			System.out.println("calling resize()");
 			resize(2 * data.length);
 		}
 
@@ -106,17 +208,20 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 		newElement.pos = ++size;
 		data[size] = newElement;
 		swim(size);
+		if (HeapMetrics.ENABLED) metrics.inserted(size);
 
 		return newElement;
 	}
 
 	private boolean more(int i, int j) {
+		if (HeapMetrics.ENABLED) metrics.compared();
 		return comp.compare(get(data, i).element, get(data, j).element) > 0;
 	}
 
 	private void swim(int k) {
 		while (k > 1 && more(k / 2, k)) {
 			exch(k / 2, k);
+			if (HeapMetrics.ENABLED) metrics.swam();
 			k = k / 2;
 		}
 	}
@@ -127,6 +232,9 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 	}
 
 	private void decreaseKey(BinaryNode element) {
+		if (element.pos == UNKNOWN_POS)
+			return;
+		if (HeapMetrics.ENABLED) metrics.decreasedKey();
 		swim(element.pos);
 	}
 
@@ -137,6 +245,64 @@ public class BinaryHeap<T> implements PriorityQueue<T> {
 		}
 	}
 
+	private void increaseKey(BinaryNode element) {
+		if (element.pos == UNKNOWN_POS)
+			return;
+		sink(element.pos);
+	}
+
+	@Override
+	public void increaseKey(PQNode<T> element) {
+		if (element instanceof BinaryHeap.BinaryNode) {
+			increaseKey((BinaryNode) element);
+		}
+	}
+
+	/**
+	 * Swaps element with the last one and restores the order at element's
+	 * old position, which may require moving the last element up or down.
+	 */
+	private void delete(BinaryNode element) {
+		int pos = element.pos;
+		if (pos == UNKNOWN_POS)
+			return;
+
+		exch(pos, size--);
+		data[size + 1] = null;
+		element.pos = UNKNOWN_POS;
+		if (pos <= size) {
+			BinaryNode moved = get(data, pos);
+			swim(pos);
+			sink(moved.pos);
+		}
+	}
+
+	@Override
+	public void delete(PQNode<T> element) {
+		if (element instanceof BinaryHeap.BinaryNode) {
+			delete((BinaryNode) element);
+		}
+	}
+
+	/**
+	 * Returns true if handle belongs to an element that is still in this
+	 * heap, i. e. that has not been extracted, deleted or replaced.
+	 */
+	public boolean contains(PQNode<T> handle) {
+		if (!(handle instanceof BinaryHeap.BinaryNode)) return false;
+		BinaryNode node = (BinaryNode) handle;
+		return node.pos != UNKNOWN_POS && node.pos <= size && data[node.pos] == node;
+	}
+
+	/**
+	 * Returns a handle that is not in the heap, for elements that were never
+	 * inserted. {@link #contains(PQNode)} returns false for it and the key
+	 * operations ignore it.
+	 */
+	protected PQNode<T> deadHandle(T element) {
+		return new BinaryNode(element);
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return size == 0;
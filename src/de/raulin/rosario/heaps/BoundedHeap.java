@@ -0,0 +1,95 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Comparator;
+
+/**
+ * A binary heap with a fixed capacity that keeps the capacity largest
+ * elements it has been offered (top-K selection).
+ * <p>
+ * Once the heap is full, {@link #min()} is the smallest of the elements kept,
+ * i. e. the one to be evicted next. A new element that is not larger is
+ * rejected with a single comparison, a larger one replaces the minimum in
+ * O(log(capacity)). The heap never grows.
+ * <p>
+ * To keep the K smallest elements (e. g. k-nearest neighbours) use a reversed
+ * comparator.
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of object being stored
+ */
+public class BoundedHeap<T> extends BinaryHeap<T> {
+
+	private final int capacity;
+
+	public BoundedHeap(int capacity, Comparator<T> comp) {
+		this(capacity, comp, HeapMetrics.NONE);
+	}
+
+	public BoundedHeap(int capacity, Comparator<T> comp, HeapMetrics metrics) {
+		super(checkCapacity(capacity), comp, metrics);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns capacity if it is positive. Called before the superclass
+	 * allocates its array.
+	 */
+	private static int checkCapacity(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		return capacity;
+	}
+
+	/**
+	 * Offers element to the heap. If the heap is full, element either replaces
+	 * the current minimum or, if it is not larger than the minimum, is
+	 * rejected.
+	 * <p>
+	 * Note: A rejected element still gets a handle, but a dead one, just like
+	 * the handle of an element evicted later on: {@link #contains(PQNode)}
+	 * returns false for it, {@link #decreaseKey(PQNode)} and
+	 * {@link #increaseKey(PQNode)} ignore it and {@link #delete(PQNode)}
+	 * throws IllegalArgumentException.
+	 * 
+	 * @param element the element to be inserted
+	 * @return a handle needed to use {@link #decreaseKey(PQNode)}
+	 */
+	@Override
+	public PQNode<T> insert(T element) {
+		if (size() < capacity) {
+			return super.insert(element);
+		} else if (comp.compare(element, min()) <= 0) {
+			return deadHandle(element);
+		} else {
+			return replaceMin(element);
+		}
+	}
+
+	/**
+	 * Removes element from the heap.
+	 * 
+	 * @throws IllegalArgumentException if element was rejected or evicted
+	 */
+	@Override
+	public void delete(PQNode<T> element) {
+		if (!contains(element)) {
+			throw new IllegalArgumentException("element is not in the heap");
+		}
+		super.delete(element);
+	}
+
+	/**
+	 * Returns the maximum number of elements this heap keeps.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns true if further insertions evict or reject elements.
+	 */
+	public boolean isFull() {
+		return size() == capacity;
+	}
+}
@@ -0,0 +1,25 @@
+package de.raulin.rosario.heaps;
+
+/**
+ * A priority queue that gives access to both its smallest and its largest
+ * element.
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of object being stored
+ */
+public interface DoubleEndedPriorityQueue<T> extends PriorityQueue<T> {
+	/**
+	 * Returns the largest element in this priority queue without modifying
+	 * the queue.
+	 * 
+	 * @return the largest element or null, if queue is empty
+	 */
+	public T max();
+
+	/**
+	 * Returns the largest element in this priority queue and removes it.
+	 * 
+	 * @return the largest element or null, if queue is empty
+	 */
+	public T extractMax();
+}
@@ -0,0 +1,292 @@
+package de.raulin.rosario.heaps;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A min-priority-queue that can hold more elements than fit into memory.
+ * <p>
+ * New elements go into an in-memory {@link BinaryHeap} of bounded size. When
+ * it is full, its contents are written in sorted order as a run to a
+ * temporary file. {@link #extractMin()} lazily merges the runs and the
+ * in-memory heap: a second heap orders the runs by their current head
+ * element, and every run is read strictly sequentially through a FileChannel
+ * in blocks of BLOCK_BYTES. Each unfinished run keeps its file open and one
+ * block in memory; both are released as soon as the run is exhausted.
+ * <p>
+ * Elements are stored as fixed-size records using a {@link RecordCodec}.
+ * Handles and {@link PriorityQueue#decreaseKey(PQNode)} are not supported,
+ * because spilled elements no longer exist as objects.
+ * <p>
+ * Note: Call {@link #close()} to delete the temporary files.
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of object being stored
+ */
+public class ExternalPriorityQueue<T> implements Closeable {
+
+	private static final int BLOCK_BYTES = 1 << 16;
+
+	/**
+	 * A sorted run on disk and its smallest unread element.
+	 */
+	private class Run {
+		private final File file;
+		private final FileChannel channel;
+		private final long length;
+		private final ByteBuffer block;
+		// The file position of the first byte not in block yet.
+		private long position;
+		private T head;
+		private PQNode<Run> handle;
+
+		Run(File file, FileChannel channel, long length) {
+			this.file = file;
+			this.channel = channel;
+			this.length = length;
+			this.block = newBlock();
+			this.position = 0;
+			block.limit(0);
+		}
+
+		/**
+		 * Reads the next element into head.
+		 * 
+		 * @return false if the run is exhausted
+		 * @throws UncheckedIOException if reading fails
+		 */
+		boolean advance() {
+			if (!block.hasRemaining()) {
+				if (position == length) {
+					head = null;
+					return false;
+				}
+				fill();
+			}
+			head = codec.read(block);
+			return true;
+		}
+
+		private void fill() {
+			block.clear();
+			block.limit((int) Math.min(block.capacity(), length - position));
+			try {
+				while (block.hasRemaining()) {
+					if (channel.read(block, position + block.position()) < 0) {
+						throw new EOFException("run " + file + " is truncated");
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			position += block.limit();
+			block.flip();
+		}
+
+		void delete() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// The file is deleted anyway.
+			}
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+		}
+	}
+
+	private final Comparator<T> comp;
+	private final RecordCodec<T> codec;
+	private final int bufferSize;
+	private final File directory;
+	private final BinaryHeap<T> buffer;
+	private final BinaryHeap<Run> runs;
+	private long size;
+	private int spills;
+
+	/**
+	 * Creates an empty queue keeping at most bufferSize elements in memory and
+	 * spilling to the default temporary directory.
+	 */
+	public ExternalPriorityQueue(int bufferSize, Comparator<T> comp, RecordCodec<T> codec) {
+		this(bufferSize, comp, codec, null);
+	}
+
+	/**
+	 * Creates an empty queue keeping at most bufferSize elements in memory and
+	 * spilling to directory (or the default temporary directory if null).
+	 */
+	public ExternalPriorityQueue(int bufferSize, final Comparator<T> comp,
+			RecordCodec<T> codec, File directory) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("buffer size must be positive");
+		}
+		this.comp = comp;
+		this.codec = codec;
+		this.bufferSize = bufferSize;
+		this.directory = directory;
+		this.buffer = new BinaryHeap<T>(bufferSize, comp);
+		this.runs = new BinaryHeap<Run>(new Comparator<Run>() {
+
+			@Override
+			public int compare(Run o1, Run o2) {
+				return comp.compare(o1.head, o2.head);
+			}
+		});
+		this.size = 0;
+		this.spills = 0;
+	}
+
+	/**
+	 * Inserts element, first spilling the in-memory heap to disk if it is
+	 * full.
+	 * 
+	 * @throws UncheckedIOException if writing the run fails, in which case
+	 *         element is not inserted and the queue is unchanged
+	 */
+	public void insert(T element) {
+		if (buffer.size() == bufferSize) {
+			spill();
+		}
+		buffer.insert(element);
+		++size;
+	}
+
+	/**
+	 * Returns the smallest element without removing it.
+	 * 
+	 * @return the smallest element or null, if queue is empty
+	 */
+	public T min() {
+		Run run = runs.min();
+		T b = buffer.min();
+		if (run == null || (b != null && comp.compare(b, run.head) <= 0)) {
+			return b;
+		}
+		return run.head;
+	}
+
+	/**
+	 * Returns the smallest element and removes it.
+	 * 
+	 * @return the smallest element or null, if queue is empty
+	 * @throws UncheckedIOException if reading a run fails
+	 */
+	public T extractMin() {
+		Run run = runs.min();
+		T b = buffer.min();
+		if (run == null || (b != null && comp.compare(b, run.head) <= 0)) {
+			if (b != null) {
+				--size;
+			}
+			return buffer.extractMin();
+		}
+
+		T min = run.head;
+		if (run.advance()) {
+			runs.increaseKey(run.handle);
+		} else {
+			runs.extractMin();
+			run.delete();
+		}
+		--size;
+		return min;
+	}
+
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns how often the in-memory heap has been written to disk.
+	 */
+	public int spills() {
+		return spills;
+	}
+
+	/**
+	 * Drops all elements, closes and deletes the temporary files.
+	 */
+	@Override
+	public void close() {
+		while (!runs.isEmpty()) {
+			runs.extractMin().delete();
+		}
+		buffer.clear();
+		size = 0;
+	}
+
+	/**
+	 * Returns a buffer holding a whole number of records.
+	 */
+	private ByteBuffer newBlock() {
+		return ByteBuffer.allocate(Math.max(1, BLOCK_BYTES / codec.size()) * codec.size());
+	}
+
+	/**
+	 * Writes the in-memory heap in sorted order to a new run. The heap is
+	 * only emptied once the run is complete; if anything fails, the file is
+	 * closed and deleted and no element is lost.
+	 */
+	@SuppressWarnings("unchecked")
+	private void spill() {
+		T[] sorted = (T[]) new Object[buffer.size()];
+		buffer.copyTo(sorted);
+		Arrays.sort(sorted, comp);
+
+		File file = null;
+		FileChannel channel = null;
+		boolean done = false;
+		try {
+			file = File.createTempFile("epq", ".run", directory);
+			channel = new RandomAccessFile(file, "rw").getChannel();
+
+			long length = 0;
+			ByteBuffer block = newBlock();
+			for (int i = 0; i < sorted.length; ++i) {
+				codec.write(sorted[i], block);
+				if (!block.hasRemaining() || i == sorted.length - 1) {
+					block.flip();
+					while (block.hasRemaining()) {
+						length += channel.write(block);
+					}
+					block.clear();
+				}
+			}
+
+			Run run = new Run(file, channel, length);
+			run.advance();
+			run.handle = runs.insert(run);
+			buffer.clear();
+			++spills;
+			done = true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (!done) {
+				if (channel != null) {
+					try {
+						channel.close();
+					} catch (IOException e) {
+						// The file is deleted anyway.
+					}
+				}
+				if (file != null) {
+					file.delete();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package de.raulin.rosario.heaps;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Checks {@link ExternalPriorityQueue} against java.util.PriorityQueue with
+ * random inserts and extractions for buffer sizes from 1 to 100 and for a
+ * buffer whose runs span several read blocks. Every queue is closed with runs
+ * left on disk, after which its directory must be empty.
+ * <p>
+ * Usage: ExternalPriorityQueueTest [operations [seed]]
+ */
+public class ExternalPriorityQueueTest {
+
+	private static final Comparator<Long> COMP = new Comparator<Long>() {
+
+		@Override
+		public int compare(Long o1, Long o2) {
+			return o1.compareTo(o2);
+		}
+	};
+
+	/**
+	 * Writes longs like {@link RecordCodec#LONG}, but fails on request.
+	 */
+	private static class FailingCodec implements RecordCodec<Long> {
+		// The write that fails, counting down; no write fails at 0.
+		int failWrite;
+		boolean failNextRead;
+
+		@Override
+		public int size() {
+			return RecordCodec.LONG.size();
+		}
+
+		@Override
+		public void write(Long element, ByteBuffer out) {
+			if (failWrite > 0 && --failWrite == 0) {
+				throw new UncheckedIOException(new IOException("disk full"));
+			}
+			RecordCodec.LONG.write(element, out);
+		}
+
+		@Override
+		public Long read(ByteBuffer in) {
+			if (failNextRead) {
+				failNextRead = false;
+				throw new UncheckedIOException(new IOException("read error"));
+			}
+			return RecordCodec.LONG.read(in);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		int operations = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+		Random random = new Random(seed);
+		File directory = Files.createTempDirectory("epq-test").toFile();
+		try {
+			long spills = 0;
+			for (int bufferSize = 1; bufferSize <= 100; ++bufferSize) {
+				spills += check(bufferSize, operations, random, directory);
+			}
+			System.out.printf("buffers 1..100, %d operations each: %d runs merged correctly.\n",
+					operations, spills);
+
+			// 10000 longs take 80000 bytes, so every run is read in several blocks.
+			spills = check(10000, 100000, random, directory);
+			System.out.printf("buffer 10000, 100000 operations: %d runs merged correctly.\n", spills);
+
+			checkFailedSpills(random, directory);
+			System.out.println("Failed spills lose no elements and leave no files.");
+		} finally {
+			directory.delete();
+		}
+	}
+
+	/**
+	 * Runs operations random inserts and extractions on a fresh queue, closes
+	 * it halfway through draining and checks that its files are gone.
+	 *
+	 * @return the number of spills
+	 */
+	private static int check(int bufferSize, int operations, Random random, File directory) {
+		ExternalPriorityQueue<Long> queue = new ExternalPriorityQueue<Long>(bufferSize, COMP,
+				RecordCodec.LONG, directory);
+		java.util.PriorityQueue<Long> reference = new java.util.PriorityQueue<Long>();
+		String where = "buffer " + bufferSize;
+
+		for (int i = 0; i < operations; ++i) {
+			// Insert twice as often as extract, so runs pile up.
+			if (random.nextInt(3) == 0) {
+				check(equal(reference.poll(), queue.extractMin()), where + ": extractMin");
+			} else {
+				long value = random.nextInt(1000);
+				queue.insert(value);
+				reference.add(value);
+			}
+			check(equal(reference.peek(), queue.min()), where + ": min");
+			check(reference.size() == queue.size(), where + ": size");
+		}
+
+		int spills = queue.spills();
+		for (int i = reference.size() / 2; i > 0; --i) {
+			check(equal(reference.poll(), queue.extractMin()), where + ": drain");
+		}
+		queue.close();
+		check(queue.isEmpty() && queue.min() == null, where + ": not empty after close");
+		String[] left = directory.list();
+		check(left != null && left.length == 0, where + ": run files left after close");
+		return spills;
+	}
+
+	/**
+	 * Lets every third spill fail, either while writing the run or while
+	 * reading its first record back, and checks that the failing insert
+	 * leaves the queue unchanged and no file behind.
+	 */
+	private static void checkFailedSpills(Random random, File directory) {
+		int bufferSize = 10;
+		FailingCodec codec = new FailingCodec();
+		ExternalPriorityQueue<Long> queue = new ExternalPriorityQueue<Long>(bufferSize, COMP, codec,
+				directory);
+		java.util.PriorityQueue<Long> reference = new java.util.PriorityQueue<Long>();
+		int failures = 0;
+
+		for (int i = 0; i < 1000; ++i) {
+			// Without extractions, the buffer is full once every spill left it full.
+			boolean spills = queue.size() == (queue.spills() + 1L) * bufferSize;
+			if (spills && random.nextInt(3) == 0) {
+				if (random.nextBoolean()) {
+					codec.failWrite = 1 + random.nextInt(bufferSize);
+				} else {
+					codec.failNextRead = true;
+				}
+				int runs = directory.list().length;
+				try {
+					queue.insert((long) random.nextInt(1000));
+					throw new IllegalStateException("spill did not fail");
+				} catch (UncheckedIOException e) {
+					++failures;
+				}
+				check(codec.failWrite == 0 && !codec.failNextRead, "failure not triggered");
+				check(directory.list().length == runs, "failed spill left a file behind");
+				check(reference.size() == queue.size(), "failed insert changed the size");
+			}
+			long value = random.nextInt(1000);
+			queue.insert(value);
+			reference.add(value);
+		}
+		check(failures > 0, "no spill failed");
+		while (!reference.isEmpty()) {
+			check(equal(reference.poll(), queue.extractMin()), "element lost by a failed spill");
+		}
+		check(queue.isEmpty(), "elements left after drain");
+		queue.close();
+		check(directory.list().length == 0, "run files left after close");
+	}
+
+	private static boolean equal(Long expected, Long actual) {
+		return expected == null ? actual == null : expected.equals(actual);
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}
@@ -47,14 +47,23 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 	private int size;
 	private DLinkedList<FNode> roots;
 	private final Comparator<T> comp;
+	private final HeapMetrics metrics;
 
 	/**
 	 * Creates an empty Fibonacci heap.
 	 */
 	public FibonacciHeap(Comparator<T> comp) {
+		this(comp, HeapMetrics.NONE);
+	}
+
+	/**
+	 * Creates an empty Fibonacci heap reporting its operations to metrics.
+	 */
+	public FibonacciHeap(Comparator<T> comp, HeapMetrics metrics) {
 		this.size = 0;
 		this.roots = null;
 		this.comp = comp;
+		this.metrics = metrics;
 	}
 
 	/**
@@ -85,28 +94,8 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 		FNode min = root;
 
 		if (min != null) {
-			// We first add all the children of the root
-			// to the roots list.
-			for (FNode child : min.children) {
-				child.node = roots.push_back(child);
-				child.parent = null;
-			}
-			// Now we remove the current root.
-			roots.delete(min.node);
-			if (min == min.right()) {
-				// There is no other element left, so the root is null.
-				// The heap is now empty.
-				root = null;
-			} else {
-				// Before consolidating the roots list, we have to
-				// make sure that root != min, so we simply set
-				// root to its right sibling. This is not necessarily
-				// the minimum, but consolidate() will set the root
-				// appropriately.
-				root = min.right();
-				consolidate();
-			}
-			--size;
+			if (HeapMetrics.ENABLED) metrics.extractedMin();
+			removeRoot();
 			return min.element;
 		} else {
 			// The heap is already empty.
@@ -115,6 +104,57 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 		}
 	}
 
+	/**
+	 * Removes the root from the heap: Its children become roots and the
+	 * roots list is consolidated.
+	 */
+	private void removeRoot() {
+		FNode min = root;
+
+		// We first add all the children of the root
+		// to the roots list.
+		for (FNode child : min.children) {
+			child.node = roots.push_back(child);
+			child.parent = null;
+		}
+		// Now we remove the current root.
+		roots.delete(min.node);
+		if (min == min.right()) {
+			// There is no other element left, so the root is null.
+			// The heap is now empty.
+			root = null;
+		} else {
+			// Before consolidating the roots list, we have to
+			// make sure that root != min, so we simply set
+			// root to its right sibling. This is not necessarily
+			// the minimum, but consolidate() will set the root
+			// appropriately.
+			root = min.right();
+			consolidate();
+		}
+		--size;
+		// The node is no longer part of the heap, so its handle
+		// becomes invalid.
+		min.node = null;
+	}
+
+	@Override
+	public int extractMin(int k, T[] out) {
+		int n = Math.min(k, size);
+		for (int i = 0; i < n; ++i) {
+			out[i] = extractMin();
+		}
+		return n;
+	}
+
+	@Override
+	public int drainSorted(T[] out) {
+		if (out.length < size) {
+			throw new IllegalArgumentException("output array too small");
+		}
+		return extractMin(size, out);
+	}
+
 	/**
 	 * Returns the FNode at position pos in the auxiliary array aux.
 	 * <p>
@@ -156,6 +196,7 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 	 * linking nodes of equal degree.
 	 */
 	private void consolidate() {
+		if (HeapMetrics.ENABLED) metrics.consolidated();
 		Object[] temp = new Object[getAuxSize() + 1];
 
 		for (FNode r : roots) {
@@ -234,7 +275,11 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 	@Override
 	public PQNode<T> insert(T element) {
 		FNode toInsert = new FNode(element);
+		insert(toInsert);
+		return toInsert;
+	}
 
+	private void insert(FNode toInsert) {
 		if (root == null) {
 			// We just have to create a new roots list
 			// and insert the new node there.
@@ -244,15 +289,14 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 			root = toInsert;
 		} else {
 			toInsert.node = roots.push_back(toInsert);
-			if (less(element, root.element)) {
+			if (less(toInsert.element, root.element)) {
 				// We found a new minimum, so that's the root.
 				root = toInsert;
 			}
 		}
 
 		++size;
-
-		return toInsert;
+		if (HeapMetrics.ENABLED) metrics.inserted(size);
 	}
 
 	@Override
@@ -267,6 +311,9 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 	 *            the FNode with decreased key
 	 */
 	private void decreaseKey(FNode x) {
+		if (x.node == null)
+			return;
+		if (HeapMetrics.ENABLED) metrics.decreasedKey();
 		FNode y = x.parent;
 		if (y != null && less(x.element, y.element)) {
 			cut(x, y);
@@ -281,6 +328,7 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 		FNode parent = y.parent;
 		if (parent != null) {
 			if (parent.marked) {
+				if (HeapMetrics.ENABLED) metrics.cascadingCut();
 				cut(y, parent);
 				ccut(parent);
 			} else {
@@ -319,16 +367,81 @@ public class FibonacciHeap<T> implements PriorityQueue<T> {
 		}
 	}
 
+	/**
+	 * Restores the heap order after x's key increased by removing x and
+	 * inserting it again with the same handle. A non-root x without children
+	 * can stay where it is.
+	 * 
+	 * @param x
+	 *            the FNode with increased key
+	 */
+	private void increaseKey(FNode x) {
+		if (x.node == null || (x != root && x.degree() == 0))
+			return;
+		delete(x);
+		x.children = new DLinkedList<FNode>();
+		insert(x);
+	}
+
+	/**
+	 * Rearranges the queue after element's priority increased.
+	 * <p>
+	 * Note: Its amortized runtime is O(log(n)).
+	 */
+	@Override
+	public void increaseKey(PQNode<T> element) {
+		if (element.getClass() == FNode.class) {
+			increaseKey((FNode) element);
+		} else {
+			assert (false);
+		}
+	}
+
+	/**
+	 * Removes x by cutting it from its parent (as if its key had decreased
+	 * to minus infinity), making it the root and removing the root.
+	 * 
+	 * @param x
+	 *            the FNode to be removed
+	 */
+	private void delete(FNode x) {
+		if (x.node == null)
+			return;
+		FNode y = x.parent;
+		if (y != null) {
+			cut(x, y);
+			ccut(y);
+		}
+		root = x;
+		removeRoot();
+	}
+
+	/**
+	 * Removes element from the heap.
+	 * <p>
+	 * Note: Its amortized runtime is O(log(n)).
+	 */
+	@Override
+	public void delete(PQNode<T> element) {
+		if (element.getClass() == FNode.class) {
+			delete((FNode) element);
+		} else {
+			assert (false);
+		}
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return size == 0;
 	}
 	
 	private boolean less(T x, T y) {
+		if (HeapMetrics.ENABLED) metrics.compared();
 		return comp.compare(x, y) < 0;
 	}
 	
 	private boolean more(T x, T y) {
+		if (HeapMetrics.ENABLED) metrics.compared();
 		return comp.compare(x, y) > 0;
 	}
 }
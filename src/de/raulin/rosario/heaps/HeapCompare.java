@@ -1,6 +1,7 @@
 package de.raulin.rosario.heaps;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -28,7 +29,7 @@ public final class HeapCompare {
 		System.out.printf("insert() took %f seconds.\n",
 				insertDuration / 1000000000.0);
 
-		assert (pq.size() == testData.length);
+		check(pq.size() == testData.length, "size() after insert()");
 
 		System.out.printf("Changing priority of %d elements.\n",
 				changePrio.size());
@@ -52,11 +53,50 @@ public final class HeapCompare {
 		System.out.printf("extractMin() took %f seconds.\n",
 				extractDuration / 1000000000.0);
 
-		assert (isSorted(extracted));
+		check(isSorted(extracted), "extractMin()");
 		// Arrays.sort(testData);
 		// assert(Arrays.equals(extracted, testData));
 	}
 
+	private static final int DRAIN_ROUNDS = 7;
+
+	/**
+	 * Empties pq by an extractMin() loop and by drainSorted() in turns and
+	 * prints the median time of each, so both run on equally warmed-up code.
+	 */
+	private static void testDrain(BinaryHeap<Integer> pq, Integer[] testData) {
+		Integer[] extracted = new Integer[testData.length];
+		long[][] times = new long[2][DRAIN_ROUNDS];
+
+		for (int round = 0; round < DRAIN_ROUNDS; ++round) {
+			for (Integer i : testData) {
+				pq.insert(i);
+			}
+			long start = System.nanoTime();
+			int n = 0;
+			while (!pq.isEmpty()) {
+				extracted[n++] = pq.extractMin();
+			}
+			times[0][round] = System.nanoTime() - start;
+			check(isSorted(extracted), "extractMin()");
+
+			for (Integer i : testData) {
+				pq.insert(i);
+			}
+			start = System.nanoTime();
+			pq.drainSorted(extracted);
+			times[1][round] = System.nanoTime() - start;
+			check(isSorted(extracted), "drainSorted()");
+		}
+
+		String[] names = { "extractMin() loop", "drainSorted()" };
+		for (int i = 0; i < names.length; ++i) {
+			Arrays.sort(times[i]);
+			System.out.printf("%s took %f seconds (median of %d).\n", names[i],
+					times[i][DRAIN_ROUNDS / 2] / 1000000000.0, DRAIN_ROUNDS);
+		}
+	}
+
 	public static void main(String[] args) {
 		if (args.length > 0) {
 			Set<Integer> toChangePrio = new HashSet<Integer>();
@@ -80,16 +120,36 @@ public final class HeapCompare {
 				
 			};
 			
-			PriorityQueue<Integer> fibHeap = new FibonacciHeap<Integer>(comp);
-			PriorityQueue<Integer> binHeap = new BinaryHeap<Integer>(testSize, comp);
+			HeapCounters fibCounters = new HeapCounters();
+			HeapCounters binCounters = new HeapCounters();
+			PriorityQueue<Integer> fibHeap = new FibonacciHeap<Integer>(comp, fibCounters);
+			PriorityQueue<Integer> binHeap = new BinaryHeap<Integer>(testSize, comp, binCounters);
 
 			assert (fibHeap.size() == 0);
 			assert (binHeap.size() == 0);
 
+			if (!HeapMetrics.ENABLED) {
+				System.out.println("Counters disabled, run with -Dheaps.metrics=true.");
+			}
 			System.out.println("fibonacci heap:");
 			test(fibHeap, toInsert, toChangePrio);
+			System.out.println(fibCounters);
 			System.out.println("binary heap:");
 			test(binHeap, toInsert, toChangePrio);
+			System.out.println(binCounters);
+
+			System.out.println("binary heap, bulk drain:");
+			testDrain(new BinaryHeap<Integer>(testSize, comp), toInsert);
+		}
+	}
+
+	/**
+	 * Fails even when assertions are disabled; see {@link HeapStressTest} for
+	 * a thorough check of the queues.
+	 */
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what + " returned wrong results");
 		}
 	}
 
@@ -0,0 +1,137 @@
+package de.raulin.rosario.heaps;
+
+/**
+ * A {@link HeapMetrics} that simply counts all events.
+ * <p>
+ * Note: Like the heaps themselves, this class is not thread-safe. Use one
+ * instance per heap or per thread and export the snapshots.
+ * 
+ * @author Rosario Raulin
+ */
+public class HeapCounters implements HeapMetrics {
+
+	private long inserts;
+	private long extractMins;
+	private long decreaseKeys;
+	private long comparisons;
+	private long exchanges;
+	private long swimSteps;
+	private long sinkSteps;
+	private long consolidations;
+	private long cascadingCuts;
+	private int peakSize;
+
+	@Override
+	public void inserted(int size) {
+		++inserts;
+		if (size > peakSize) peakSize = size;
+	}
+
+	@Override
+	public void extractedMin() {
+		++extractMins;
+	}
+
+	@Override
+	public void decreasedKey() {
+		++decreaseKeys;
+	}
+
+	@Override
+	public void compared() {
+		++comparisons;
+	}
+
+	@Override
+	public void exchanged() {
+		++exchanges;
+	}
+
+	@Override
+	public void swam() {
+		++swimSteps;
+	}
+
+	@Override
+	public void sank() {
+		++sinkSteps;
+	}
+
+	@Override
+	public void consolidated() {
+		++consolidations;
+	}
+
+	@Override
+	public void cascadingCut() {
+		++cascadingCuts;
+	}
+
+	public long inserts() {
+		return inserts;
+	}
+
+	public long extractMins() {
+		return extractMins;
+	}
+
+	public long decreaseKeys() {
+		return decreaseKeys;
+	}
+
+	public long comparisons() {
+		return comparisons;
+	}
+
+	public long exchanges() {
+		return exchanges;
+	}
+
+	public long swimSteps() {
+		return swimSteps;
+	}
+
+	public long sinkSteps() {
+		return sinkSteps;
+	}
+
+	public long consolidations() {
+		return consolidations;
+	}
+
+	public long cascadingCuts() {
+		return cascadingCuts;
+	}
+
+	/**
+	 * Returns the largest size the heap reached.
+	 */
+	public int peakSize() {
+		return peakSize;
+	}
+
+	/**
+	 * Sets all counters back to zero.
+	 */
+	public void reset() {
+		inserts = 0;
+		extractMins = 0;
+		decreaseKeys = 0;
+		comparisons = 0;
+		exchanges = 0;
+		swimSteps = 0;
+		sinkSteps = 0;
+		consolidations = 0;
+		cascadingCuts = 0;
+		peakSize = 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("inserts=%d extractMins=%d decreaseKeys=%d comparisons=%d "
+				+ "exchanges=%d swimSteps=%d sinkSteps=%d consolidations=%d "
+				+ "cascadingCuts=%d peakSize=%d", inserts, extractMins, decreaseKeys,
+				comparisons, exchanges, swimSteps, sinkSteps, consolidations,
+				cascadingCuts, peakSize);
+	}
+}
@@ -0,0 +1,107 @@
+package de.raulin.rosario.heaps;
+
+/**
+ * Receives notifications about the operations a heap performs.
+ * <p>
+ * Heaps are created with {@link #NONE} unless told otherwise. Every call is
+ * guarded by {@link #ENABLED}: unless the JVM runs with
+ * -Dheaps.metrics=true, the guard is a constant false and the JIT removes the
+ * calls, so heaps pay nothing for instrumentation no matter how many
+ * implementations of this interface are loaded.
+ * 
+ * @author Rosario Raulin
+ * @see HeapCounters
+ */
+public interface HeapMetrics {
+
+	/**
+	 * True if heaps report to their metrics, set by the system property
+	 * heaps.metrics. Otherwise even heaps given a {@link HeapCounters} do
+	 * not count.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("heaps.metrics");
+
+	/**
+	 * Disables instrumentation.
+	 */
+	public static final HeapMetrics NONE = new HeapMetrics() {
+
+		@Override
+		public void inserted(int size) {
+		}
+
+		@Override
+		public void extractedMin() {
+		}
+
+		@Override
+		public void decreasedKey() {
+		}
+
+		@Override
+		public void compared() {
+		}
+
+		@Override
+		public void exchanged() {
+		}
+
+		@Override
+		public void swam() {
+		}
+
+		@Override
+		public void sank() {
+		}
+
+		@Override
+		public void consolidated() {
+		}
+
+		@Override
+		public void cascadingCut() {
+		}
+	};
+
+	/**
+	 * Called after an element was inserted.
+	 * 
+	 * @param size the size of the heap after the insertion
+	 */
+	public void inserted(int size);
+
+	public void extractedMin();
+
+	public void decreasedKey();
+
+	/**
+	 * Called once per comparison of two elements.
+	 */
+	public void compared();
+
+	/**
+	 * Called whenever two elements of an array-based heap swap places.
+	 */
+	public void exchanged();
+
+	/**
+	 * Called for every level an element moves up in an array-based heap.
+	 */
+	public void swam();
+
+	/**
+	 * Called for every level an element moves down in an array-based heap.
+	 */
+	public void sank();
+
+	/**
+	 * Called whenever a Fibonacci heap consolidates its roots list.
+	 */
+	public void consolidated();
+
+	/**
+	 * Called whenever a cascading cut moves a marked node of a Fibonacci heap
+	 * to the roots list.
+	 */
+	public void cascadingCut();
+}
@@ -0,0 +1,783 @@
+package de.raulin.rosario.heaps;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * A randomized differential test of all priority queues of this package.
+ * <p>
+ * Each run generates a sequence of insert, decreaseKey, increaseKey, delete,
+ * min, extractMin and extractMin(k) operations from a seed and replays it on
+ * every queue and on a TreeSet as reference, comparing size and minimum after
+ * every step. Operations refer to live handles by index modulo the number of
+ * live handles, so any subsequence is still a valid sequence. A failing
+ * sequence is shrunk by removing chunks of operations as long as it still
+ * fails, and printed along with its seed.
+ * <p>
+ * Queues that do not implement {@link PriorityQueue} ({@link PooledBinaryHeap},
+ * {@link LongHeap}, {@link DoubleHeap} and {@link ExternalPriorityQueue}) run
+ * behind adapters. The primitive heaps get the priority and the id packed into
+ * one key, so their order is total as well. The external queue has no
+ * handles and skips decreaseKey, increaseKey and delete. A {@link BoundedHeap}
+ * of small capacity is checked against a reference that keeps only the
+ * largest elements, and its rejected and evicted handles must be dead. Every
+ * run also merges random sorted lists with a {@link LoserTree}.
+ * <p>
+ * Usage:
+ * <ul>
+ * <li>HeapStressTest [runs [operations [seed]]] for the differential test,</li>
+ * <li>HeapStressTest throughput seconds [operations [seed]] to measure
+ * operations per second without the reference, checking every queue by
+ * draining it at the end of each sequence (a soak test when run long).</li>
+ * </ul>
+ * Run with -ea to enable the queues' internal assertions as well.
+ * 
+ * @author Rosario Raulin
+ */
+public final class HeapStressTest {
+
+	private static final String[] NAMES = { "binary", "fibonacci", "min-max", "bounded",
+			"bounded-full", "pooled", "long", "double", "external" };
+
+	// The capacity of "bounded-full", small enough to overflow all the time.
+	private static final int CAPACITY = 8;
+	// The in-memory buffer of "external", small enough to spill all the time.
+	private static final int EXTERNAL_BUFFER = 8;
+	// The bits of a packed primitive key that hold the id.
+	private static final int ID_BITS = 24;
+
+	private static final int INSERT = 0;
+	private static final int DECREASE = 1;
+	private static final int INCREASE = 2;
+	private static final int DELETE = 3;
+	private static final int MIN = 4;
+	private static final int EXTRACT = 5;
+	private static final int EXTRACT_K = 6;
+	private static final String[] OPERATIONS = { "insert", "decreaseKey", "increaseKey",
+			"delete", "min", "extractMin", "extractMin(k)" };
+
+	/**
+	 * A mutable priority; ids break ties, so the order is total and every
+	 * queue must return exactly the same elements as the reference.
+	 */
+	private static final class Key {
+		long priority;
+		final int id;
+		PQNode<Key> node;
+		// The position in the list of live keys.
+		int live;
+
+		Key(long priority, int id) {
+			this.priority = priority;
+			this.id = id;
+		}
+
+		@Override
+		public String toString() {
+			return "#" + id + "(" + priority + ")";
+		}
+	}
+
+	private static final Comparator<Key> COMP = new Comparator<Key>() {
+
+		@Override
+		public int compare(Key o1, Key o2) {
+			if (o1.priority != o2.priority) return o1.priority < o2.priority ? -1 : 1;
+			return o1.id < o2.id ? -1 : (o1.id == o2.id ? 0 : 1);
+		}
+	};
+
+	private static final Comparator<Key> PRIORITY = new Comparator<Key>() {
+
+		@Override
+		public int compare(Key o1, Key o2) {
+			return o1.priority < o2.priority ? -1 : (o1.priority == o2.priority ? 0 : 1);
+		}
+	};
+
+	private static final Comparator<Long> LONG_ORDER = new Comparator<Long>() {
+
+		@Override
+		public int compare(Long o1, Long o2) {
+			return o1.compareTo(o2);
+		}
+	};
+
+	/**
+	 * Packs key into a single long ordered like {@link #COMP}.
+	 */
+	private static long pack(Key key) {
+		if (key.id >= 1 << ID_BITS) {
+			throw new IllegalArgumentException("too many operations for packed keys");
+		}
+		return key.priority << ID_BITS | key.id;
+	}
+
+	/**
+	 * An operation. target selects a live key (modulo their number) and
+	 * value is the priority inserted, the amount of change or k.
+	 */
+	private static final class Op {
+		final int kind;
+		final int target;
+		final long value;
+
+		Op(int kind, int target, long value) {
+			this.kind = kind;
+			this.target = target;
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return OPERATIONS[kind] + " " + target + " " + value;
+		}
+	}
+
+	/**
+	 * A handle of a queue that does not use {@link PQNode}s.
+	 */
+	private static final class Handle extends PQNode<Key> {
+		final long handle;
+
+		Handle(Key key, long handle) {
+			super(key);
+			this.handle = handle;
+		}
+	}
+
+	/**
+	 * Makes a queue look like a {@link PriorityQueue}.
+	 */
+	private abstract static class Adapter implements PriorityQueue<Key> {
+
+		@Override
+		public int extractMin(int k, Key[] out) {
+			int n = Math.min(k, size());
+			for (int i = 0; i < n; ++i) {
+				out[i] = extractMin();
+			}
+			return n;
+		}
+
+		@Override
+		public int drainSorted(Key[] out) {
+			if (out.length < size()) {
+				throw new IllegalArgumentException("output array too small");
+			}
+			return extractMin(size(), out);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size() == 0;
+		}
+
+		static long handle(PQNode<Key> node) {
+			return ((Handle) node).handle;
+		}
+	}
+
+	private static final class PooledAdapter extends Adapter {
+		private final PooledBinaryHeap<Key> heap = new PooledBinaryHeap<Key>(16, COMP);
+
+		@Override
+		public Key min() {
+			return heap.min();
+		}
+
+		@Override
+		public Key extractMin() {
+			return heap.extractMin();
+		}
+
+		@Override
+		public PQNode<Key> insert(Key element) {
+			return new Handle(element, heap.insert(element));
+		}
+
+		@Override
+		public int size() {
+			return heap.size();
+		}
+
+		@Override
+		public void decreaseKey(PQNode<Key> element) {
+			heap.decreaseKey(handle(element));
+		}
+
+		@Override
+		public void increaseKey(PQNode<Key> element) {
+			heap.increaseKey(handle(element));
+		}
+
+		@Override
+		public void delete(PQNode<Key> element) {
+			heap.delete(handle(element));
+		}
+	}
+
+	/**
+	 * Stores packed keys in a {@link LongHeap}, the payload is the index of
+	 * the key in payloads.
+	 */
+	private static final class LongAdapter extends Adapter {
+		private final LongHeap heap = new LongHeap(16);
+		private final List<Key> payloads = new ArrayList<Key>();
+
+		@Override
+		public Key min() {
+			return heap.isEmpty() ? null : payloads.get(heap.minValue());
+		}
+
+		@Override
+		public Key extractMin() {
+			return heap.isEmpty() ? null : payloads.get(heap.extractMin());
+		}
+
+		@Override
+		public PQNode<Key> insert(Key element) {
+			payloads.add(element);
+			return new Handle(element, heap.insert(pack(element), payloads.size() - 1));
+		}
+
+		@Override
+		public int size() {
+			return heap.size();
+		}
+
+		@Override
+		public void decreaseKey(PQNode<Key> element) {
+			heap.decreaseKey((int) handle(element), pack(element.getElement()));
+		}
+
+		@Override
+		public void increaseKey(PQNode<Key> element) {
+			heap.increaseKey((int) handle(element), pack(element.getElement()));
+		}
+
+		@Override
+		public void delete(PQNode<Key> element) {
+			heap.delete((int) handle(element));
+		}
+	}
+
+	/**
+	 * Like {@link LongAdapter} for a {@link DoubleHeap}.
+	 */
+	private static final class DoubleAdapter extends Adapter {
+		private final DoubleHeap heap = new DoubleHeap(16);
+		private final List<Key> payloads = new ArrayList<Key>();
+
+		private static double key(Key key) {
+			long packed = pack(key);
+			if (Math.abs(packed) >= 1L << 53) {
+				throw new IllegalArgumentException("packed key not exact as a double");
+			}
+			return packed;
+		}
+
+		@Override
+		public Key min() {
+			return heap.isEmpty() ? null : payloads.get(heap.minValue());
+		}
+
+		@Override
+		public Key extractMin() {
+			return heap.isEmpty() ? null : payloads.get(heap.extractMin());
+		}
+
+		@Override
+		public PQNode<Key> insert(Key element) {
+			payloads.add(element);
+			return new Handle(element, heap.insert(key(element), payloads.size() - 1));
+		}
+
+		@Override
+		public int size() {
+			return heap.size();
+		}
+
+		@Override
+		public void decreaseKey(PQNode<Key> element) {
+			heap.decreaseKey((int) handle(element), key(element.getElement()));
+		}
+
+		@Override
+		public void increaseKey(PQNode<Key> element) {
+			heap.increaseKey((int) handle(element), key(element.getElement()));
+		}
+
+		@Override
+		public void delete(PQNode<Key> element) {
+			heap.delete((int) handle(element));
+		}
+	}
+
+	/**
+	 * Stores packed keys in an {@link ExternalPriorityQueue}. It has no
+	 * handles, so insert returns null and the key operations are unsupported.
+	 */
+	private static final class ExternalAdapter extends Adapter {
+		private final ExternalPriorityQueue<Long> queue = new ExternalPriorityQueue<Long>(
+				EXTERNAL_BUFFER, LONG_ORDER, RecordCodec.LONG);
+		private final Map<Long, Key> keys = new HashMap<Long, Key>();
+
+		@Override
+		public Key min() {
+			Long min = queue.min();
+			return min == null ? null : keys.get(min);
+		}
+
+		@Override
+		public Key extractMin() {
+			Long min = queue.extractMin();
+			return min == null ? null : keys.remove(min);
+		}
+
+		@Override
+		public PQNode<Key> insert(Key element) {
+			keys.put(pack(element), element);
+			queue.insert(pack(element));
+			return null;
+		}
+
+		@Override
+		public int size() {
+			return (int) queue.size();
+		}
+
+		@Override
+		public void decreaseKey(PQNode<Key> element) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void increaseKey(PQNode<Key> element) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void delete(PQNode<Key> element) {
+			throw new UnsupportedOperationException();
+		}
+
+		void close() {
+			queue.close();
+		}
+	}
+
+	private HeapStressTest() {
+	}
+
+	private static PriorityQueue<Key> create(String name, int operations) {
+		if (name.equals("binary")) {
+			return PriorityQueues.BINARY.create(16, COMP);
+		} else if (name.equals("fibonacci")) {
+			return PriorityQueues.FIBONACCI.create(16, COMP);
+		} else if (name.equals("min-max")) {
+			return PriorityQueues.MIN_MAX.create(16, COMP);
+		} else if (name.equals("bounded")) {
+			// Never full, so it must behave like an unbounded queue.
+			return PriorityQueues.bounded(Math.max(1, operations)).create(16, COMP);
+		} else if (name.equals("bounded-full")) {
+			return PriorityQueues.bounded(CAPACITY).create(16, COMP);
+		} else if (name.equals("pooled")) {
+			return new PooledAdapter();
+		} else if (name.equals("long")) {
+			return new LongAdapter();
+		} else if (name.equals("double")) {
+			return new DoubleAdapter();
+		} else {
+			return new ExternalAdapter();
+		}
+	}
+
+	/**
+	 * Releases the resources of pq.
+	 */
+	private static void dispose(PriorityQueue<Key> pq) {
+		if (pq instanceof ExternalAdapter) {
+			((ExternalAdapter) pq).close();
+		}
+	}
+
+	/**
+	 * Returns false if the queue called name does not support decreaseKey,
+	 * increaseKey and delete.
+	 */
+	private static boolean hasHandles(String name) {
+		return !name.equals("external");
+	}
+
+	/**
+	 * Returns the number of elements the queue called name keeps at most, or 0
+	 * if it is unbounded.
+	 */
+	private static int capacity(String name) {
+		return name.equals("bounded-full") ? CAPACITY : 0;
+	}
+
+	private static List<Op> generate(Random random, int operations) {
+		// Few distinct priorities, so ties are common.
+		int range = 1 + random.nextInt(4 * operations + 1);
+		List<Op> ops = new ArrayList<Op>(operations);
+		for (int i = 0; i < operations; ++i) {
+			int roll = random.nextInt(100);
+			int kind;
+			if (roll < 40) kind = INSERT;
+			else if (roll < 55) kind = DECREASE;
+			else if (roll < 65) kind = INCREASE;
+			else if (roll < 72) kind = DELETE;
+			else if (roll < 77) kind = MIN;
+			else if (roll < 97) kind = EXTRACT;
+			else kind = EXTRACT_K;
+
+			long value;
+			if (kind == INSERT) value = random.nextInt(range);
+			else if (kind == EXTRACT_K) value = 1 + random.nextInt(8);
+			else value = random.nextInt(range / 4 + 1);
+			ops.add(new Op(kind, random.nextInt(Integer.MAX_VALUE), value));
+		}
+		return ops;
+	}
+
+	/**
+	 * Replays ops on the queue called name and the reference.
+	 * 
+	 * @return null on success or a description of the first failure
+	 */
+	private static String replay(String name, List<Op> ops) {
+		PriorityQueue<Key> pq = create(name, ops.size());
+		boolean handles = hasHandles(name);
+		int capacity = capacity(name);
+		TreeSet<Key> reference = new TreeSet<Key>(COMP);
+		List<Key> live = new ArrayList<Key>();
+		int step = 0;
+
+		try {
+			for (Op op : ops) {
+				Key key = live.isEmpty() ? null : live.get(op.target % live.size());
+				switch (op.kind) {
+				case INSERT:
+					key = new Key(op.value, step);
+					key.node = pq.insert(key);
+					if (capacity > 0 && reference.size() == capacity) {
+						// Either the new key is rejected or the minimum evicted.
+						Key dropped = COMP.compare(key, reference.first()) <= 0 ? key : reference.pollFirst();
+						if (dropped != key) {
+							remove(live, dropped);
+							reference.add(key);
+							key.live = live.size();
+							live.add(key);
+						}
+						String failure = checkDropped((BoundedHeap<Key>) pq, dropped);
+						if (failure != null) {
+							return "step " + step + ": " + failure;
+						}
+						break;
+					}
+					reference.add(key);
+					key.live = live.size();
+					live.add(key);
+					break;
+				case DECREASE:
+					if (key == null || !handles) break;
+					reference.remove(key);
+					key.priority -= op.value;
+					reference.add(key);
+					pq.decreaseKey(key.node);
+					break;
+				case INCREASE:
+					if (key == null || !handles) break;
+					reference.remove(key);
+					key.priority += op.value;
+					reference.add(key);
+					pq.increaseKey(key.node);
+					break;
+				case DELETE:
+					if (key == null || !handles) break;
+					pq.delete(key.node);
+					reference.remove(key);
+					remove(live, key);
+					break;
+				case MIN:
+					break;
+				case EXTRACT:
+					Key expected = reference.pollFirst();
+					Key actual = pq.extractMin();
+					if (actual != expected) {
+						return "step " + step + ": extractMin() returned " + actual + ", expected " + expected;
+					}
+					if (actual != null) remove(live, actual);
+					break;
+				case EXTRACT_K:
+					Key[] out = new Key[(int) op.value];
+					int n = pq.extractMin((int) op.value, out);
+					int expectedCount = Math.min((int) op.value, reference.size());
+					if (n != expectedCount) {
+						return "step " + step + ": extractMin(k) returned " + n + " elements, expected " + expectedCount;
+					}
+					for (int i = 0; i < n; ++i) {
+						expected = reference.pollFirst();
+						if (out[i] != expected) {
+							return "step " + step + ": extractMin(k) returned " + out[i] + " at " + i + ", expected " + expected;
+						}
+						remove(live, out[i]);
+					}
+					break;
+				}
+
+				if (pq.size() != reference.size()) {
+					return "step " + step + ": size() is " + pq.size() + ", expected " + reference.size();
+				}
+				Key expectedMin = reference.isEmpty() ? null : reference.first();
+				if (pq.min() != expectedMin) {
+					return "step " + step + ": min() is " + pq.min() + ", expected " + expectedMin;
+				}
+				++step;
+			}
+		} catch (Throwable t) {
+			return "step " + step + " (" + ops.get(step) + "): " + t;
+		} finally {
+			dispose(pq);
+		}
+		return null;
+	}
+
+	/**
+	 * Checks that the handle of a rejected or evicted key is dead.
+	 * 
+	 * @return null on success or a description of the failure
+	 */
+	private static String checkDropped(BoundedHeap<Key> heap, Key dropped) {
+		if (heap.contains(dropped.node)) {
+			return dropped + " was dropped, but contains() is true";
+		}
+		try {
+			heap.delete(dropped.node);
+			return dropped + " was dropped, but delete() did not throw";
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static void remove(List<Key> live, Key key) {
+		Key last = live.remove(live.size() - 1);
+		if (last != key) {
+			live.set(key.live, last);
+			last.live = key.live;
+		}
+	}
+
+	/**
+	 * Removes chunks of operations from a failing sequence for as long as it
+	 * keeps failing.
+	 */
+	private static List<Op> shrink(String name, List<Op> ops) {
+		List<Op> current = ops;
+		for (int chunk = current.size() / 2; chunk >= 1; chunk /= 2) {
+			int start = 0;
+			while (start < current.size()) {
+				List<Op> candidate = new ArrayList<Op>(current.subList(0, start));
+				candidate.addAll(current.subList(Math.min(current.size(), start + chunk), current.size()));
+				if (replay(name, candidate) != null) {
+					current = candidate;
+				} else {
+					start += chunk;
+				}
+			}
+		}
+		return current;
+	}
+
+	private static boolean differential(int runs, int operations, long seed) {
+		for (int run = 0; run < runs; ++run) {
+			List<Op> ops = generate(new Random(seed + run), operations);
+			for (String name : NAMES) {
+				String failure = replay(name, ops);
+				if (failure == null) continue;
+
+				System.out.printf("%s failed with seed %d: %s\n", name, seed + run, failure);
+				List<Op> minimal = shrink(name, ops);
+				System.out.printf("shrunk to %d operations: %s\n", minimal.size(), replay(name, minimal));
+				for (Op op : minimal) {
+					System.out.println("  " + op);
+				}
+				return false;
+			}
+			String failure = merge(new Random(seed + run));
+			if (failure != null) {
+				System.out.printf("loser tree failed with seed %d: %s\n", seed + run, failure);
+				return false;
+			}
+		}
+		System.out.printf("%d runs of %d operations passed on %d queues and the loser tree.\n",
+				runs, operations, NAMES.length);
+		return true;
+	}
+
+	/**
+	 * Merges random sorted lists with a {@link LoserTree} ordered by priority
+	 * only and compares the result with their union sorted by priority and id.
+	 * Ids grow with the source and within it, so this also checks that equal
+	 * elements come in source order.
+	 * 
+	 * @return null on success or a description of the first failure
+	 */
+	private static String merge(Random random) {
+		int k = random.nextInt(13);
+		List<Iterator<Key>> sources = new ArrayList<Iterator<Key>>();
+		List<Key> expected = new ArrayList<Key>();
+		int id = 0;
+		for (int i = 0; i < k; ++i) {
+			List<Key> source = new ArrayList<Key>();
+			for (int n = random.nextInt(31); n > 0; --n) {
+				source.add(new Key(random.nextInt(20), id++));
+			}
+			Collections.sort(source, COMP);
+			sources.add(source.iterator());
+			expected.addAll(source);
+		}
+		Collections.sort(expected, COMP);
+
+		LoserTree<Key> tree = new LoserTree<Key>(sources, PRIORITY, 1 + random.nextInt(8));
+		for (int i = 0; i < expected.size(); ++i) {
+			if (!tree.hasNext()) {
+				return k + " sources: ended after " + i + " of " + expected.size() + " elements";
+			}
+			Key actual = tree.next();
+			if (actual != expected.get(i)) {
+				return k + " sources: element " + i + " is " + actual + ", expected " + expected.get(i);
+			}
+		}
+		if (tree.hasNext()) {
+			return k + " sources: more than " + expected.size() + " elements";
+		}
+		return null;
+	}
+
+	private static boolean throughput(double seconds, int operations, long seed) {
+		Random random = new Random(seed);
+		List<List<Op>> sequences = new ArrayList<List<Op>>();
+		for (int i = 0; i < 16; ++i) {
+			sequences.add(generate(random, operations));
+		}
+
+		for (String name : NAMES) {
+			long deadline = System.nanoTime() + (long) (seconds / NAMES.length * 1e9);
+			long count = 0;
+			long start = System.nanoTime();
+			while (System.nanoTime() < deadline) {
+				for (List<Op> ops : sequences) {
+					if (!run(name, ops)) {
+						System.out.printf("%s returned unsorted elements, replay with the same seed.\n", name);
+						return false;
+					}
+					count += ops.size();
+				}
+			}
+			double elapsed = (System.nanoTime() - start) / 1000000000.0;
+			System.out.printf("%s: %.0f operations per second\n", name, count / elapsed);
+		}
+		return true;
+	}
+
+	/**
+	 * Runs ops without the reference and then drains the queue.
+	 * 
+	 * @return true if the drained elements are sorted and complete
+	 */
+	private static boolean run(String name, List<Op> ops) {
+		PriorityQueue<Key> pq = create(name, ops.size());
+		try {
+			return run(pq, hasHandles(name), capacity(name), ops);
+		} finally {
+			dispose(pq);
+		}
+	}
+
+	private static boolean run(PriorityQueue<Key> pq, boolean handles, int capacity, List<Op> ops) {
+		List<Key> live = new ArrayList<Key>();
+		int step = 0;
+		for (Op op : ops) {
+			Key key = live.isEmpty() ? null : live.get(op.target % live.size());
+			switch (op.kind) {
+			case INSERT:
+				key = new Key(op.value, step);
+				Key min = capacity > 0 && pq.size() == capacity ? pq.min() : null;
+				key.node = pq.insert(key);
+				if (min != null) {
+					// Either the new key was rejected or the minimum evicted.
+					if (!((BoundedHeap<Key>) pq).contains(key.node)) break;
+					remove(live, min);
+				}
+				key.live = live.size();
+				live.add(key);
+				break;
+			case DECREASE:
+				if (key == null || !handles) break;
+				key.priority -= op.value;
+				pq.decreaseKey(key.node);
+				break;
+			case INCREASE:
+				if (key == null || !handles) break;
+				key.priority += op.value;
+				pq.increaseKey(key.node);
+				break;
+			case DELETE:
+				if (key == null || !handles) break;
+				pq.delete(key.node);
+				remove(live, key);
+				break;
+			case MIN:
+				pq.min();
+				break;
+			case EXTRACT:
+				key = pq.extractMin();
+				if (key != null) remove(live, key);
+				break;
+			case EXTRACT_K:
+				Key[] out = new Key[(int) op.value];
+				int n = pq.extractMin((int) op.value, out);
+				for (int i = 0; i < n; ++i) {
+					remove(live, out[i]);
+				}
+				break;
+			}
+			++step;
+		}
+
+		Key[] out = new Key[pq.size()];
+		if (pq.drainSorted(out) != live.size()) return false;
+		for (int i = 0; i + 1 < out.length; ++i) {
+			if (COMP.compare(out[i], out[i + 1]) > 0) return false;
+		}
+		return true;
+	}
+
+	public static void main(String[] args) {
+		boolean passed;
+		if (args.length > 0 && args[0].equals("throughput")) {
+			double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+			int operations = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+			long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+			System.out.println("seed " + seed);
+			passed = throughput(seconds, operations, seed);
+		} else {
+			int runs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+			int operations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+			long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+			System.out.println("seed " + seed);
+			passed = differential(runs, operations, seed);
+		}
+		if (!passed) System.exit(1);
+	}
+}
@@ -0,0 +1,268 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of long keys, each carrying an int payload.
+ * <p>
+ * Keys are stored inline in heap order, so every comparison is a single
+ * primitive compare without a Comparator call or unboxing. Each element is
+ * identified by an int handle (a slot number), which can be used to change
+ * its key or to remove it. Handles of removed elements are reused by later
+ * insertions, so a stale handle silently refers to another element; use
+ * {@link PooledBinaryHeap} where stale handles have to be detected.
+ * <p>
+ * Note: {@link DoubleHeap} is the same code with double keys, since Java generics
+ * cannot abstract over primitive types without boxing. Change both classes
+ * together.
+ * 
+ * @author Rosario Raulin
+ * @see DoubleHeap
+ */
+public class LongHeap {
+
+	private static final int FREE = -1;
+	private static final int DEFAULT_SIZE = 16;
+
+	private int size;
+	// keys[i] and slots[i] belong to the element at heap position i (1-based)
+	private long[] keys;
+	private int[] slots;
+	// pos[s] and values[s] belong to the element with handle s
+	private int[] pos;
+	private int[] values;
+	private int[] freeSlots;
+	private int freeCount;
+	private int usedSlots;
+
+	public LongHeap() {
+		this(DEFAULT_SIZE);
+	}
+
+	public LongHeap(int size) {
+		size = Math.max(size, 1);
+		this.size = 0;
+		this.keys = new long[size + 1];
+		this.slots = new int[size + 1];
+		this.pos = new int[size];
+		this.values = new int[size];
+		this.freeSlots = new int[size];
+		this.freeCount = 0;
+		this.usedSlots = 0;
+	}
+
+	/**
+	 * Inserts value with priority key.
+	 * 
+	 * @return the handle of the new element
+	 */
+	public int insert(long key, int value) {
+		if (size == keys.length - 1) {
+			keys = Arrays.copyOf(keys, 2 * keys.length);
+			slots = Arrays.copyOf(slots, 2 * slots.length);
+		}
+
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (usedSlots == pos.length) {
+				pos = Arrays.copyOf(pos, 2 * pos.length);
+				values = Arrays.copyOf(values, 2 * values.length);
+				freeSlots = Arrays.copyOf(freeSlots, 2 * freeSlots.length);
+			}
+			slot = usedSlots++;
+		}
+
+		++size;
+		keys[size] = key;
+		slots[size] = slot;
+		pos[slot] = size;
+		values[slot] = value;
+		swim(size);
+
+		return slot;
+	}
+
+	/**
+	 * Returns the smallest key.
+	 * 
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public long minKey() {
+		checkNotEmpty();
+		return keys[1];
+	}
+
+	/**
+	 * Returns the payload of the element with the smallest key.
+	 * 
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int minValue() {
+		checkNotEmpty();
+		return values[slots[1]];
+	}
+
+	/**
+	 * Returns the handle of the element with the smallest key.
+	 * 
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int minHandle() {
+		checkNotEmpty();
+		return slots[1];
+	}
+
+	/**
+	 * Removes the element with the smallest key and returns its payload.
+	 * 
+	 * @throws NoSuchElementException if the heap is empty
+	 */
+	public int extractMin() {
+		checkNotEmpty();
+		int value = values[slots[1]];
+		removeAt(1);
+		return value;
+	}
+
+	/**
+	 * Lowers the key of the element with the given handle.
+	 * 
+	 * @throws IllegalArgumentException if key is larger than the current key
+	 */
+	public void decreaseKey(int handle, long key) {
+		int i = position(handle);
+		if (key > keys[i]) {
+			throw new IllegalArgumentException("key increased");
+		}
+		keys[i] = key;
+		swim(i);
+	}
+
+	/**
+	 * Raises the key of the element with the given handle.
+	 * 
+	 * @throws IllegalArgumentException if key is smaller than the current key
+	 */
+	public void increaseKey(int handle, long key) {
+		int i = position(handle);
+		if (key < keys[i]) {
+			throw new IllegalArgumentException("key decreased");
+		}
+		keys[i] = key;
+		sink(i);
+	}
+
+	/**
+	 * Removes the element with the given handle.
+	 */
+	public void delete(int handle) {
+		removeAt(position(handle));
+	}
+
+	/**
+	 * Returns true if handle refers to an element in this heap.
+	 */
+	public boolean contains(int handle) {
+		return handle >= 0 && handle < usedSlots && pos[handle] != FREE;
+	}
+
+	public long key(int handle) {
+		return keys[position(handle)];
+	}
+
+	public int value(int handle) {
+		position(handle);
+		return values[handle];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements. All handles are void afterwards: the next
+	 * insertions reuse them, so they must not be used anymore.
+	 */
+	public void clear() {
+		Arrays.fill(pos, 0, usedSlots, FREE);
+		size = 0;
+		usedSlots = 0;
+		freeCount = 0;
+	}
+
+	private int position(int handle) {
+		if (!contains(handle)) {
+			throw new IllegalArgumentException("invalid handle: " + handle);
+		}
+		return pos[handle];
+	}
+
+	private void checkNotEmpty() {
+		if (size == 0) {
+			throw new NoSuchElementException("heap is empty");
+		}
+	}
+
+	private void removeAt(int i) {
+		int slot = slots[i];
+		exch(i, size--);
+		pos[slot] = FREE;
+		freeSlots[freeCount++] = slot;
+		if (i <= size) {
+			int moved = slots[i];
+			swim(i);
+			sink(pos[moved]);
+		}
+	}
+
+	private void swim(int k) {
+		long key = keys[k];
+		int slot = slots[k];
+		while (k > 1 && keys[k / 2] > key) {
+			keys[k] = keys[k / 2];
+			slots[k] = slots[k / 2];
+			pos[slots[k]] = k;
+			k = k / 2;
+		}
+		keys[k] = key;
+		slots[k] = slot;
+		pos[slot] = k;
+	}
+
+	private void sink(int k) {
+		long key = keys[k];
+		int slot = slots[k];
+		while (2 * k <= size) {
+			int j = 2 * k;
+			if (j < size && keys[j] > keys[j + 1])
+				++j;
+			if (key <= keys[j])
+				break;
+			keys[k] = keys[j];
+			slots[k] = slots[j];
+			pos[slots[k]] = k;
+			k = j;
+		}
+		keys[k] = key;
+		slots[k] = slot;
+		pos[slot] = k;
+	}
+
+	private void exch(int i, int j) {
+		long key = keys[i];
+		int slot = slots[i];
+		keys[i] = keys[j];
+		slots[i] = slots[j];
+		keys[j] = key;
+		slots[j] = slot;
+		pos[slots[i]] = i;
+		pos[slots[j]] = j;
+	}
+}
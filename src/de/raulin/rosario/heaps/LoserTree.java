@@ -0,0 +1,157 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges k sorted sources into a single sorted sequence using a loser tree
+ * (tournament tree).
+ * <p>
+ * Each inner node of the tree remembers the source that lost the match played
+ * there, the overall winner is kept separately. After the winner's element has
+ * been taken, its next element replays the matches on the path from its leaf
+ * to the root only, which needs exactly one comparison per level, i. e.
+ * ceil(log2(k)) comparisons per element. Re-inserting into a binary heap needs
+ * up to twice as many.
+ * <p>
+ * Elements are read from the sources in batches, so the merge loop itself
+ * mostly works on arrays. Equal elements are returned in source order.
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of the elements
+ */
+public class LoserTree<T> implements Iterator<T> {
+
+	private static final int DEFAULT_BATCH_SIZE = 64;
+
+	private final Iterator<? extends T>[] sources;
+	private final Comparator<? super T> comp;
+	private final int k;
+	// tree[1..k-1] are the losers of the inner nodes, tree[0] is the winner.
+	private final int[] tree;
+	private final Object[][] batches;
+	private final int[] batchPos;
+	private final int[] batchSize;
+
+	public LoserTree(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comp) {
+		this(sources, comp, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a merger of the given sorted sources.
+	 * 
+	 * @param sources the iterators to be merged, each sorted by comp
+	 * @param comp the order of the elements
+	 * @param batchSize the number of elements fetched from a source at once
+	 * @throws IllegalArgumentException if batchSize is less than 1
+	 */
+	@SuppressWarnings("unchecked")
+	public LoserTree(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comp,
+			int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+		}
+		this.k = sources.size();
+		this.sources = sources.toArray(new Iterator[k]);
+		this.comp = comp;
+		this.tree = new int[Math.max(k, 1)];
+		this.batches = new Object[k][batchSize];
+		this.batchPos = new int[k];
+		this.batchSize = new int[k];
+
+		for (int i = 0; i < k; ++i) {
+			refill(i);
+		}
+		if (k > 0) {
+			tree[0] = build(1);
+		}
+	}
+
+	/**
+	 * Plays the matches of the subtree rooted at node (leaves are k to 2k - 1)
+	 * and returns its winner.
+	 */
+	private int build(int node) {
+		if (node >= k) {
+			return node - k;
+		}
+		int left = build(2 * node);
+		int right = build(2 * node + 1);
+		if (beats(left, right)) {
+			tree[node] = right;
+			return left;
+		} else {
+			tree[node] = left;
+			return right;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return k > 0 && !exhausted(tree[0]);
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		int winner = tree[0];
+		T result = head(winner);
+		if (++batchPos[winner] == batchSize[winner]) {
+			refill(winner);
+		}
+
+		// Replay the matches on the path from winner's leaf to the root.
+		for (int node = (winner + k) / 2; node > 0; node /= 2) {
+			if (beats(tree[node], winner)) {
+				int loser = winner;
+				winner = tree[node];
+				tree[node] = loser;
+			}
+		}
+		tree[0] = winner;
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private void refill(int source) {
+		Object[] batch = batches[source];
+		int n = 0;
+		while (n < batch.length && sources[source].hasNext()) {
+			batch[n++] = sources[source].next();
+		}
+		// Clear the rest to let the garbage collector reclaim old elements.
+		for (int i = n; i < batchSize[source]; ++i) {
+			batch[i] = null;
+		}
+		batchSize[source] = n;
+		batchPos[source] = 0;
+	}
+
+	private boolean exhausted(int source) {
+		return batchPos[source] == batchSize[source];
+	}
+
+	@SuppressWarnings("unchecked")
+	private T head(int source) {
+		return (T) batches[source][batchPos[source]];
+	}
+
+	/**
+	 * Returns true if source a wins against source b: exhausted sources lose
+	 * against all others, ties go to the lower source.
+	 */
+	private boolean beats(int a, int b) {
+		if (exhausted(a)) return false;
+		if (exhausted(b)) return true;
+		int c = comp.compare(head(a), head(b));
+		return c < 0 || (c == 0 && a < b);
+	}
+}
@@ -0,0 +1,254 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Comparator;
+
+/**
+ * A min-max heap: a binary heap in a single array whose even levels (starting
+ * with the root) are ordered like a min-heap and whose odd levels are ordered
+ * like a max-heap. The smallest element is the root and the largest is one of
+ * its children.
+ * <p>
+ * {@link #min()} and {@link #max()} run in O(1); {@link #insert(Object)},
+ * {@link #extractMin()}, {@link #extractMax()} and any change of an element's
+ * priority run in O(log(n)).
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of object being stored
+ */
+public class MinMaxHeap<T> implements DoubleEndedPriorityQueue<T> {
+
+	private final static int UNKNOWN_POS = -1;
+	private static final int DEFAULT_SIZE = 16;
+
+	class MinMaxNode extends PQNode<T> {
+		private int pos;
+
+		public MinMaxNode(T element) {
+			super(element);
+			this.pos = UNKNOWN_POS;
+		}
+	}
+
+	private int size;
+	private Object[] data;
+	private final Comparator<T> comp;
+	private final HeapMetrics metrics;
+
+	public MinMaxHeap(Comparator<T> comp) {
+		this(DEFAULT_SIZE, comp);
+	}
+
+	public MinMaxHeap(int size, Comparator<T> comp) {
+		this(size, comp, HeapMetrics.NONE);
+	}
+
+	public MinMaxHeap(int size, Comparator<T> comp, HeapMetrics metrics) {
+		this.size = 0;
+		this.data = new Object[Math.max(size, 1) + 1];
+		this.comp = comp;
+		this.metrics = metrics;
+	}
+
+	@SuppressWarnings("unchecked")
+	private MinMaxNode get(int pos) {
+		return (MinMaxNode) data[pos];
+	}
+
+	@Override
+	public T min() {
+		return size == 0 ? null : get(1).element;
+	}
+
+	@Override
+	public T max() {
+		return size == 0 ? null : get(maxPos()).element;
+	}
+
+	@Override
+	public T extractMin() {
+		if (size == 0)
+			return null;
+		if (HeapMetrics.ENABLED) metrics.extractedMin();
+		return removeAt(1);
+	}
+
+	@Override
+	public T extractMax() {
+		return size == 0 ? null : removeAt(maxPos());
+	}
+
+	@Override
+	public int extractMin(int k, T[] out) {
+		int n = Math.min(k, size);
+		for (int i = 0; i < n; ++i) {
+			out[i] = extractMin();
+		}
+		return n;
+	}
+
+	@Override
+	public int drainSorted(T[] out) {
+		if (out.length < size) {
+			throw new IllegalArgumentException("output array too small");
+		}
+		return extractMin(size, out);
+	}
+
+	/**
+	 * Returns the position of the largest element: the larger child of the
+	 * root or the root itself.
+	 */
+	private int maxPos() {
+		if (size < 3)
+			return size;
+		return before(3, 2, true) ? 3 : 2;
+	}
+
+	private T removeAt(int i) {
+		MinMaxNode node = get(i);
+
+		exch(i, size);
+		data[size--] = null;
+		node.pos = UNKNOWN_POS;
+		if (i <= size) {
+			restore(i);
+		}
+
+		return node.element;
+	}
+
+	@Override
+	public PQNode<T> insert(T element) {
+		if (size == data.length - 1) {
+			Object[] newData = new Object[2 * data.length];
+			System.arraycopy(data, 0, newData, 0, data.length);
+			data = newData;
+		}
+
+		MinMaxNode newElement = new MinMaxNode(element);
+		newElement.pos = ++size;
+		data[size] = newElement;
+		restore(size);
+		if (HeapMetrics.ENABLED) metrics.inserted(size);
+
+		return newElement;
+	}
+
+	@Override
+	public void decreaseKey(PQNode<T> element) {
+		if (HeapMetrics.ENABLED) metrics.decreasedKey();
+		changedKey(element);
+	}
+
+	@Override
+	public void increaseKey(PQNode<T> element) {
+		changedKey(element);
+	}
+
+	@Override
+	public void delete(PQNode<T> element) {
+		if (element instanceof MinMaxHeap.MinMaxNode) {
+			int pos = ((MinMaxNode) element).pos;
+			if (pos != UNKNOWN_POS) {
+				removeAt(pos);
+			}
+		}
+	}
+
+	private void changedKey(PQNode<T> element) {
+		if (element instanceof MinMaxHeap.MinMaxNode) {
+			int pos = ((MinMaxNode) element).pos;
+			if (pos != UNKNOWN_POS) {
+				restore(pos);
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private static boolean isMaxLevel(int i) {
+		return (31 - Integer.numberOfLeadingZeros(i)) % 2 == 1;
+	}
+
+	/**
+	 * Restores the heap order after the element at position i changed (or was
+	 * put there), assuming the rest of the heap is ordered.
+	 */
+	private void restore(int i) {
+		boolean max = isMaxLevel(i);
+		if (i > 1 && before(i, i / 2, !max)) {
+			// The element belongs to the opposite kind of level: it is larger
+			// (smaller) than the max (min) parent and thus than everything in
+			// the parent's subtree. The parent's element moves down into this
+			// subtree and the element moves up along the parent's levels.
+			exch(i, i / 2);
+			pushDown(i, max);
+			pushUp(i / 2, !max);
+		} else if (i > 3 && before(i, i / 4, max)) {
+			pushUp(i, max);
+		} else {
+			pushDown(i, max);
+		}
+	}
+
+	private void pushUp(int i, boolean max) {
+		while (i > 3 && before(i, i / 4, max)) {
+			exch(i, i / 4);
+			if (HeapMetrics.ENABLED) metrics.swam();
+			i = i / 4;
+		}
+	}
+
+	private void pushDown(int i, boolean max) {
+		while (2 * i <= size) {
+			// Find the smallest (largest) of the children and grandchildren.
+			int m = 2 * i;
+			if (m + 1 <= size && before(m + 1, m, max))
+				m = m + 1;
+			for (int g = 4 * i; g <= Math.min(4 * i + 3, size); ++g) {
+				if (before(g, m, max))
+					m = g;
+			}
+
+			if (!before(m, i, max))
+				break;
+			exch(m, i);
+			if (HeapMetrics.ENABLED) metrics.sank();
+			if (m < 4 * i)
+				break;
+			if (before(m / 2, m, max))
+				exch(m, m / 2);
+			i = m;
+		}
+	}
+
+	/**
+	 * Returns true if the element at i has to be above the element at j on a
+	 * max level (if max is true) or on a min level (if max is false).
+	 */
+	private boolean before(int i, int j, boolean max) {
+		if (HeapMetrics.ENABLED) metrics.compared();
+		int c = comp.compare(get(i).element, get(j).element);
+		return max ? c > 0 : c < 0;
+	}
+
+	private void exch(int i, int j) {
+		MinMaxNode atI = get(i);
+		MinMaxNode atJ = get(j);
+
+		atI.pos = j;
+		atJ.pos = i;
+		if (HeapMetrics.ENABLED) metrics.exchanged();
+
+		data[i] = atJ;
+		data[j] = atI;
+	}
+}
@@ -0,0 +1,238 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A binary heap that does not allocate per element.
+ * <p>
+ * Instead of {@link PQNode} objects, elements live in slots of preallocated
+ * arrays and are identified by long handles. The lower 32 bits of a handle are
+ * the slot, the upper 32 bits its generation. A slot's generation is
+ * incremented whenever its element leaves the heap and the slot is recycled,
+ * so a stale handle is detected instead of silently affecting the new
+ * element in the slot.
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of object being stored
+ * @see BinaryHeap
+ */
+public class PooledBinaryHeap<T> {
+
+	private static final int FREE = -1;
+	private static final int DEFAULT_SIZE = 16;
+
+	private int size;
+	// heap[i] is the slot of the element at heap position i (1-based)
+	private int[] heap;
+	// elements[s], pos[s] and generation[s] belong to slot s
+	private Object[] elements;
+	private int[] pos;
+	private int[] generation;
+	private int[] freeSlots;
+	private int freeCount;
+	private int usedSlots;
+	private final Comparator<T> comp;
+	private final HeapMetrics metrics;
+
+	public PooledBinaryHeap(Comparator<T> comp) {
+		this(DEFAULT_SIZE, comp);
+	}
+
+	public PooledBinaryHeap(int size, Comparator<T> comp) {
+		this(size, comp, HeapMetrics.NONE);
+	}
+
+	/**
+	 * Creates an empty heap with room for size elements before its arrays
+	 * have to grow.
+	 */
+	public PooledBinaryHeap(int size, Comparator<T> comp, HeapMetrics metrics) {
+		size = Math.max(size, 1);
+		this.size = 0;
+		this.heap = new int[size + 1];
+		this.elements = new Object[size];
+		this.pos = new int[size];
+		this.generation = new int[size];
+		this.freeSlots = new int[size];
+		this.freeCount = 0;
+		this.usedSlots = 0;
+		this.comp = comp;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Inserts the element and rearranges the heap to maintain the order.
+	 * 
+	 * @return the handle of the element
+	 */
+	public long insert(T element) {
+		if (size == heap.length - 1) {
+			heap = Arrays.copyOf(heap, 2 * heap.length);
+		}
+
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (usedSlots == pos.length) {
+				int capacity = 2 * pos.length;
+				elements = Arrays.copyOf(elements, capacity);
+				pos = Arrays.copyOf(pos, capacity);
+				generation = Arrays.copyOf(generation, capacity);
+				freeSlots = Arrays.copyOf(freeSlots, capacity);
+			}
+			slot = usedSlots++;
+		}
+
+		elements[slot] = element;
+		heap[++size] = slot;
+		pos[slot] = size;
+		swim(size);
+		if (HeapMetrics.ENABLED) metrics.inserted(size);
+
+		return ((long) generation[slot] << 32) | slot;
+	}
+
+	/**
+	 * Returns the smallest element or null, if the heap is empty.
+	 */
+	public T min() {
+		return size == 0 ? null : element(heap[1]);
+	}
+
+	/**
+	 * Returns the smallest element and removes it. Its handle becomes stale.
+	 * 
+	 * @return the smallest element or null, if the heap is empty
+	 */
+	public T extractMin() {
+		if (size == 0)
+			return null;
+		if (HeapMetrics.ENABLED) metrics.extractedMin();
+		return removeAt(1);
+	}
+
+	/**
+	 * Rearranges the heap after the priority of handle's element decreased.
+	 * 
+	 * @throws IllegalArgumentException if handle is stale
+	 */
+	public void decreaseKey(long handle) {
+		if (HeapMetrics.ENABLED) metrics.decreasedKey();
+		swim(position(handle));
+	}
+
+	/**
+	 * Rearranges the heap after the priority of handle's element increased.
+	 * 
+	 * @throws IllegalArgumentException if handle is stale
+	 */
+	public void increaseKey(long handle) {
+		sink(position(handle));
+	}
+
+	/**
+	 * Removes handle's element from the heap. The handle becomes stale.
+	 * 
+	 * @throws IllegalArgumentException if handle is stale
+	 */
+	public void delete(long handle) {
+		removeAt(position(handle));
+	}
+
+	/**
+	 * Returns the element identified by handle.
+	 * 
+	 * @throws IllegalArgumentException if handle is stale
+	 */
+	public T get(long handle) {
+		position(handle);
+		return element((int) handle);
+	}
+
+	/**
+	 * Returns true if handle's element is still in the heap.
+	 */
+	public boolean contains(long handle) {
+		int slot = (int) handle;
+		return slot >= 0 && slot < usedSlots && pos[slot] != FREE
+				&& generation[slot] == (int) (handle >>> 32);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int position(long handle) {
+		if (!contains(handle)) {
+			throw new IllegalArgumentException("stale handle: " + handle);
+		}
+		return pos[(int) handle];
+	}
+
+	@SuppressWarnings("unchecked")
+	private T element(int slot) {
+		return (T) elements[slot];
+	}
+
+	private T removeAt(int i) {
+		int slot = heap[i];
+		T element = element(slot);
+
+		exch(i, size--);
+		elements[slot] = null;
+		pos[slot] = FREE;
+		++generation[slot];
+		freeSlots[freeCount++] = slot;
+		if (i <= size) {
+			int moved = heap[i];
+			swim(i);
+			sink(pos[moved]);
+		}
+
+		return element;
+	}
+
+	private boolean more(int i, int j) {
+		if (HeapMetrics.ENABLED) metrics.compared();
+		return comp.compare(element(heap[i]), element(heap[j])) > 0;
+	}
+
+	private void swim(int k) {
+		while (k > 1 && more(k / 2, k)) {
+			exch(k / 2, k);
+			if (HeapMetrics.ENABLED) metrics.swam();
+			k = k / 2;
+		}
+	}
+
+	private void sink(int k) {
+		while (2 * k <= size) {
+			int j = 2 * k;
+			if (j < size && more(j, j + 1))
+				++j;
+			if (!more(k, j))
+				break;
+			exch(k, j);
+			if (HeapMetrics.ENABLED) metrics.sank();
+			k = j;
+		}
+	}
+
+	private void exch(int i, int j) {
+		int atI = heap[i];
+		int atJ = heap[j];
+
+		pos[atI] = j;
+		pos[atJ] = i;
+		if (HeapMetrics.ENABLED) metrics.exchanged();
+
+		heap[i] = atJ;
+		heap[j] = atI;
+	}
+}
@@ -32,11 +32,32 @@ public interface PriorityQueue<T> {
 	 */
 	public T extractMin();
 	
+	/**
+	 * Removes the k smallest elements (or all, if there are fewer) and writes
+	 * them in ascending order to out[0], out[1], ...
+	 * 
+	 * @param k the maximum number of elements to extract
+	 * @param out the array receiving the elements
+	 * @return the number of elements extracted
+	 */
+	public int extractMin(int k, T[] out);
+	
+	/**
+	 * Removes all elements and writes them in ascending order to out[0],
+	 * out[1], ... The queue is empty afterwards.
+	 * 
+	 * @param out the array receiving the elements, at least {@link #size()} long
+	 * @return the number of elements extracted
+	 * @throws IllegalArgumentException if out is too small
+	 */
+	public int drainSorted(T[] out);
+	
 	/**
 	 * Inserts the element and rearranges the queue to maintain the order.
 	 * 
 	 * @param element the element to be inserted
-	 * @return a handle needed to use {@link #decreaseKey(PQNode)}.
+	 * @return a handle needed to use {@link #decreaseKey(PQNode)},
+	 *         {@link #increaseKey(PQNode)} and {@link #delete(PQNode)}.
 	 */
 	public PQNode<T> insert(T element);
 	
@@ -50,12 +71,27 @@ public interface PriorityQueue<T> {
 	/**
 	 * Rearranges the queue after element's priority decreased.
 	 * <p>
-	 * Note: This method does not work if element's priority increased!
+	 * Note: This method does not work if element's priority increased! Use
+	 * {@link #increaseKey(PQNode)} instead.
 	 * 
 	 * @param element the element with decreased priority
 	 */
 	public void decreaseKey(PQNode<T> element);
 	
+	/**
+	 * Rearranges the queue after element's priority increased.
+	 * 
+	 * @param element the element with increased priority
+	 */
+	public void increaseKey(PQNode<T> element);
+	
+	/**
+	 * Removes element from the queue. Its handle must not be used afterwards.
+	 * 
+	 * @param element the element to be removed
+	 */
+	public void delete(PQNode<T> element);
+	
 	/**
 	 * Returns true if the priority queue doesn't contain any elements.
 	 * 
@@ -0,0 +1,21 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Comparator;
+
+/**
+ * Creates priority queues, so algorithms can be run with different
+ * {@link PriorityQueue} implementations.
+ * 
+ * @author Rosario Raulin
+ * @see PriorityQueues
+ */
+public interface PriorityQueueFactory {
+	/**
+	 * Creates an empty priority queue.
+	 * 
+	 * @param size the expected number of elements
+	 * @param comp the order of the elements
+	 * @return an empty priority queue
+	 */
+	public <T> PriorityQueue<T> create(int size, Comparator<T> comp);
+}
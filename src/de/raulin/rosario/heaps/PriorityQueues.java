@@ -0,0 +1,65 @@
+package de.raulin.rosario.heaps;
+
+import java.util.Comparator;
+
+/**
+ * Factories for the priority queues of this package.
+ * 
+ * @author Rosario Raulin
+ */
+public final class PriorityQueues {
+
+	/**
+	 * Creates {@link BinaryHeap}s.
+	 */
+	public static final PriorityQueueFactory BINARY = new PriorityQueueFactory() {
+
+		@Override
+		public <T> PriorityQueue<T> create(int size, Comparator<T> comp) {
+			return new BinaryHeap<T>(size, comp);
+		}
+	};
+
+	/**
+	 * Creates {@link FibonacciHeap}s.
+	 */
+	public static final PriorityQueueFactory FIBONACCI = new PriorityQueueFactory() {
+
+		@Override
+		public <T> PriorityQueue<T> create(int size, Comparator<T> comp) {
+			return new FibonacciHeap<T>(comp);
+		}
+	};
+
+	/**
+	 * Creates {@link MinMaxHeap}s.
+	 */
+	public static final PriorityQueueFactory MIN_MAX = new PriorityQueueFactory() {
+
+		@Override
+		public <T> PriorityQueue<T> create(int size, Comparator<T> comp) {
+			return new MinMaxHeap<T>(size, comp);
+		}
+	};
+
+	private PriorityQueues() {
+	}
+
+	/**
+	 * Returns a factory of {@link BoundedHeap}s keeping the capacity largest
+	 * elements. The size passed to the factory is ignored.
+	 * <p>
+	 * Note: Once full, these queues drop elements, and the handles of dropped
+	 * elements are dead (see {@link BoundedHeap#insert(Object)}). Use them
+	 * only where losing all but the capacity largest elements is intended.
+	 */
+	public static PriorityQueueFactory bounded(final int capacity) {
+		return new PriorityQueueFactory() {
+
+			@Override
+			public <T> PriorityQueue<T> create(int size, Comparator<T> comp) {
+				return new BoundedHeap<T>(capacity, comp);
+			}
+		};
+	}
+}
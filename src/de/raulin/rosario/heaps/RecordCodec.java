@@ -0,0 +1,83 @@
+package de.raulin.rosario.heaps;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from fixed-size binary records, so they can be
+ * stored outside the Java heap (see {@link ExternalPriorityQueue}).
+ * 
+ * @author Rosario Raulin
+ * @param <T> the type of the elements
+ */
+public interface RecordCodec<T> {
+
+	public static final RecordCodec<Integer> INTEGER = new RecordCodec<Integer>() {
+
+		@Override
+		public int size() {
+			return 4;
+		}
+
+		@Override
+		public void write(Integer element, ByteBuffer out) {
+			out.putInt(element);
+		}
+
+		@Override
+		public Integer read(ByteBuffer in) {
+			return in.getInt();
+		}
+	};
+
+	public static final RecordCodec<Long> LONG = new RecordCodec<Long>() {
+
+		@Override
+		public int size() {
+			return 8;
+		}
+
+		@Override
+		public void write(Long element, ByteBuffer out) {
+			out.putLong(element);
+		}
+
+		@Override
+		public Long read(ByteBuffer in) {
+			return in.getLong();
+		}
+	};
+
+	public static final RecordCodec<Double> DOUBLE = new RecordCodec<Double>() {
+
+		@Override
+		public int size() {
+			return 8;
+		}
+
+		@Override
+		public void write(Double element, ByteBuffer out) {
+			out.putDouble(element);
+		}
+
+		@Override
+		public Double read(ByteBuffer in) {
+			return in.getDouble();
+		}
+	};
+
+	/**
+	 * Returns the number of bytes of every record.
+	 */
+	public int size();
+
+	/**
+	 * Writes element as exactly {@link #size()} bytes at out's position.
+	 */
+	public void write(T element, ByteBuffer out);
+
+	/**
+	 * Reads an element written by {@link #write(Object, ByteBuffer)} from in's
+	 * position.
+	 */
+	public T read(ByteBuffer in);
+}
@@ -0,0 +1,86 @@
+package de.raulin.rosario.scheduler;
+
+import de.raulin.rosario.heaps.DLinkedList;
+import de.raulin.rosario.heaps.PQNode;
+
+/**
+ * A handle for an action scheduled with a {@link TimerScheduler}. It can be
+ * passed to {@link TimerScheduler#cancel(ScheduledTask)} and
+ * {@link TimerScheduler#reschedule(ScheduledTask, long, java.util.concurrent.TimeUnit)}.
+ * 
+ * @author Rosario Raulin
+ */
+public class ScheduledTask {
+
+	enum State {
+		PENDING, FIRED, CANCELLED, REJECTED, FAILED
+	}
+
+	final Runnable action;
+	// All other fields are guarded by the scheduler's lock. state is volatile
+	// as well, so the public getters can read it without that lock.
+	long deadline;
+	volatile State state;
+	// Set while the task is in one of the scheduler's wheel buckets...
+	DLinkedList<ScheduledTask> bucket;
+	DLinkedList<ScheduledTask>.DNode node;
+	// ... or in its overflow heap.
+	PQNode<ScheduledTask> handle;
+	// Written before state becomes FAILED, so the volatile read publishes it.
+	RuntimeException failure;
+
+	ScheduledTask(Runnable action, long deadline) {
+		this.action = action;
+		this.deadline = deadline;
+		this.state = State.PENDING;
+	}
+
+	/**
+	 * Returns the action this task runs.
+	 */
+	public Runnable getAction() {
+		return action;
+	}
+
+	/**
+	 * Returns true if the task has neither fired nor been cancelled yet.
+	 */
+	public boolean isPending() {
+		return state == State.PENDING;
+	}
+
+	/**
+	 * Returns true if the task's action has been handed to the executor.
+	 */
+	public boolean isFired() {
+		return state == State.FIRED;
+	}
+
+	public boolean isCancelled() {
+		return state == State.CANCELLED;
+	}
+
+	/**
+	 * Returns true if the task came due but the executor rejected its action
+	 * (e. g. because it had been shut down). The action did not run.
+	 */
+	public boolean isRejected() {
+		return state == State.REJECTED;
+	}
+
+	/**
+	 * Returns true if handing the action to the executor threw something
+	 * other than a rejection, e. g. because the executor runs actions in the
+	 * calling thread and the action failed.
+	 */
+	public boolean isFailed() {
+		return state == State.FAILED;
+	}
+
+	/**
+	 * Returns what was thrown if the task failed, null otherwise.
+	 */
+	public RuntimeException getFailure() {
+		return isFailed() ? failure : null;
+	}
+}
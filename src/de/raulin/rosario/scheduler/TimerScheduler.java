@@ -0,0 +1,299 @@
+package de.raulin.rosario.scheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import de.raulin.rosario.concurrent.VirtualThreads;
+import de.raulin.rosario.heaps.BinaryHeap;
+import de.raulin.rosario.heaps.DLinkedList;
+import de.raulin.rosario.heaps.PriorityQueue;
+
+/**
+ * Runs actions after a delay, with a resolution of one tick.
+ * <p>
+ * Deadlines less than 64^4 ticks away are kept in a hierarchical timing wheel:
+ * four levels of 64 buckets, where level k covers deadlines up to 64^(k+1)
+ * ticks away with a granularity of 64^k ticks. Tasks move down one level
+ * whenever their bucket comes due, so scheduling, cancelling and firing a task
+ * are O(1). Farther deadlines wait in a {@link BinaryHeap} until they come
+ * within reach of the wheel.
+ * <p>
+ * A single timer thread advances the wheel and hands due actions to an
+ * executor. By default this is a virtual thread per task executor if the JVM
+ * provides one and a cached pool of daemon threads otherwise; it is shut down
+ * along with the scheduler. If the executor rejects an action or throws
+ * anything else (e. g. an executor running actions in the timer thread), only
+ * that task is marked as rejected or failed and the timer keeps running.
+ * 
+ * @author Rosario Raulin
+ */
+public class TimerScheduler {
+
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int LEVELS = 4;
+	private static final long HORIZON = 1L << (WHEEL_BITS * LEVELS);
+
+	private final long tickNanos;
+	private final long startNanos;
+	private final Executor executor;
+	// The default executor, which the scheduler has to shut down, or null.
+	private final ExecutorService ownExecutor;
+	private final DLinkedList<ScheduledTask>[][] wheels;
+	private final PriorityQueue<ScheduledTask> overflow;
+	private long currentTick;
+	private int pending;
+	private Thread timer;
+	private volatile boolean running;
+
+	/**
+	 * Creates a scheduler running actions on the default executor.
+	 */
+	public TimerScheduler(long tickDuration, TimeUnit unit) {
+		this(tickDuration, unit, VirtualThreads.newExecutor("timer-scheduler-worker"), true);
+	}
+
+	/**
+	 * Creates a scheduler running actions on executor, which stays owned by
+	 * the caller.
+	 */
+	public TimerScheduler(long tickDuration, TimeUnit unit, Executor executor) {
+		this(tickDuration, unit, executor, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private TimerScheduler(long tickDuration, TimeUnit unit, Executor executor, boolean owned) {
+		if (tickDuration <= 0) {
+			throw new IllegalArgumentException("tick duration must be positive");
+		}
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.startNanos = System.nanoTime();
+		this.executor = executor;
+		this.ownExecutor = owned ? (ExecutorService) executor : null;
+		this.wheels = (DLinkedList<ScheduledTask>[][]) new DLinkedList[LEVELS][WHEEL_SIZE];
+		for (int level = 0; level < LEVELS; ++level) {
+			for (int slot = 0; slot < WHEEL_SIZE; ++slot) {
+				wheels[level][slot] = new DLinkedList<ScheduledTask>();
+			}
+		}
+		this.overflow = new BinaryHeap<ScheduledTask>(new Comparator<ScheduledTask>() {
+
+			@Override
+			public int compare(ScheduledTask o1, ScheduledTask o2) {
+				return o1.deadline < o2.deadline ? -1 : (o1.deadline == o2.deadline ? 0 : 1);
+			}
+		});
+		this.currentTick = 0;
+		this.pending = 0;
+		this.running = true;
+	}
+
+	/**
+	 * Schedules action to run once delay has passed (rounded up to the next
+	 * tick).
+	 * 
+	 * @return a handle to cancel or reschedule the task
+	 * @throws IllegalStateException if the scheduler has been shut down
+	 */
+	public synchronized ScheduledTask schedule(Runnable action, long delay, TimeUnit unit) {
+		if (!running) {
+			throw new IllegalStateException("scheduler has been shut down");
+		}
+		ScheduledTask task = new ScheduledTask(action, deadline(delay, unit));
+		place(task);
+		++pending;
+		if (timer == null) {
+			startTimer();
+		}
+		return task;
+	}
+
+	/**
+	 * Cancels task if it has not fired yet.
+	 * 
+	 * @return true if the task was pending
+	 */
+	public synchronized boolean cancel(ScheduledTask task) {
+		if (task.state != ScheduledTask.State.PENDING) {
+			return false;
+		}
+		remove(task);
+		task.state = ScheduledTask.State.CANCELLED;
+		--pending;
+		return true;
+	}
+
+	/**
+	 * Moves the deadline of the pending task to delay from now.
+	 * 
+	 * @return true if the task was pending
+	 */
+	public synchronized boolean reschedule(ScheduledTask task, long delay, TimeUnit unit) {
+		if (task.state != ScheduledTask.State.PENDING) {
+			return false;
+		}
+		long deadline = deadline(delay, unit);
+		if (task.handle != null && deadline - currentTick >= HORIZON) {
+			// The task stays in the overflow heap, so we only restore its order.
+			boolean earlier = deadline < task.deadline;
+			task.deadline = deadline;
+			if (earlier) {
+				overflow.decreaseKey(task.handle);
+			} else {
+				overflow.increaseKey(task.handle);
+			}
+		} else {
+			remove(task);
+			task.deadline = deadline;
+			place(task);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of tasks that have neither fired nor been cancelled.
+	 */
+	public synchronized int pending() {
+		return pending;
+	}
+
+	/**
+	 * Stops the timer thread and, if the scheduler created it, the executor.
+	 * Pending tasks will not fire anymore; actions already handed to the
+	 * executor still run.
+	 */
+	public void shutdown() {
+		Thread t;
+		synchronized (this) {
+			running = false;
+			t = timer;
+		}
+		if (t != null) {
+			LockSupport.unpark(t);
+		}
+		if (ownExecutor != null) {
+			ownExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Returns the tick at which a task scheduled now with the given delay is
+	 * due, which is at least the next tick.
+	 */
+	private long deadline(long delay, TimeUnit unit) {
+		long elapsed = System.nanoTime() - startNanos + unit.toNanos(delay);
+		long tick = (elapsed + tickNanos - 1) / tickNanos;
+		return Math.max(tick, currentTick + 1);
+	}
+
+	/**
+	 * Puts task into the wheel bucket (or the overflow heap) matching its
+	 * distance from the current tick.
+	 */
+	private void place(ScheduledTask task) {
+		long delta = task.deadline - currentTick;
+		for (int level = 0; level < LEVELS; ++level) {
+			if (delta < 1L << (WHEEL_BITS * (level + 1))) {
+				int slot = (int) (task.deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+				task.bucket = wheels[level][slot];
+				task.node = task.bucket.push_back(task);
+				return;
+			}
+		}
+		task.handle = overflow.insert(task);
+	}
+
+	private void remove(ScheduledTask task) {
+		if (task.bucket != null) {
+			task.bucket.delete(task.node);
+			task.bucket = null;
+			task.node = null;
+		} else if (task.handle != null) {
+			overflow.delete(task.handle);
+			task.handle = null;
+		}
+	}
+
+	/**
+	 * Processes tick: tasks from the overflow heap and from due buckets of the
+	 * upper levels move down, then the level 0 bucket of tick fires.
+	 */
+	private void advance(long tick, List<ScheduledTask> due) {
+		currentTick = tick;
+
+		while (!overflow.isEmpty() && overflow.min().deadline - tick < HORIZON) {
+			ScheduledTask task = overflow.extractMin();
+			task.handle = null;
+			place(task);
+		}
+
+		for (int level = LEVELS - 1; level > 0; --level) {
+			if ((tick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+				int slot = (int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+				for (ScheduledTask task : takeBucket(level, slot)) {
+					place(task);
+				}
+			}
+		}
+
+		for (ScheduledTask task : takeBucket(0, (int) tick & WHEEL_MASK)) {
+			task.state = ScheduledTask.State.FIRED;
+			--pending;
+			due.add(task);
+		}
+	}
+
+	private DLinkedList<ScheduledTask> takeBucket(int level, int slot) {
+		DLinkedList<ScheduledTask> bucket = wheels[level][slot];
+		wheels[level][slot] = new DLinkedList<ScheduledTask>();
+		for (ScheduledTask task : bucket) {
+			task.bucket = null;
+			task.node = null;
+		}
+		return bucket;
+	}
+
+	private void startTimer() {
+		timer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				List<ScheduledTask> due = new ArrayList<ScheduledTask>();
+				while (running) {
+					long now = System.nanoTime() - startNanos;
+					synchronized (TimerScheduler.this) {
+						while (currentTick < now / tickNanos) {
+							advance(currentTick + 1, due);
+						}
+					}
+					for (ScheduledTask task : due) {
+						try {
+							executor.execute(task.action);
+						} catch (RejectedExecutionException e) {
+							synchronized (TimerScheduler.this) {
+								task.state = ScheduledTask.State.REJECTED;
+							}
+						} catch (RuntimeException e) {
+							// Keep the timer alive for all other tasks.
+							synchronized (TimerScheduler.this) {
+								task.failure = e;
+								task.state = ScheduledTask.State.FAILED;
+							}
+						}
+					}
+					due.clear();
+					LockSupport.parkNanos(tickNanos - now % tickNanos);
+				}
+			}
+		}, "timer-scheduler");
+		timer.setDaemon(true);
+		timer.start();
+	}
+}
@@ -0,0 +1,151 @@
+package de.raulin.rosario.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks {@link TimerScheduler} with random tasks: no action may run before
+ * its delay has passed or after it was cancelled, every other action must
+ * run, and a rejected or failing action must not stop the timer.
+ * <p>
+ * Usage: TimerSchedulerTest [tasks [seed]]
+ */
+public class TimerSchedulerTest {
+
+	private static final long FAR = TimeUnit.HOURS.toMillis(10);
+
+	/**
+	 * An action that remembers when it should and when it did run.
+	 */
+	private static class Probe implements Runnable {
+		final AtomicLong ranAt = new AtomicLong();
+		final CountDownLatch done;
+		volatile long earliest;
+
+		Probe(CountDownLatch done) {
+			this.done = done;
+		}
+
+		@Override
+		public void run() {
+			ranAt.compareAndSet(0, System.nanoTime());
+			done.countDown();
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+		checkRandomTasks(tasks, new Random(seed));
+		checkRejection();
+	}
+
+	private static void checkRandomTasks(int tasks, Random random) throws InterruptedException {
+		TimerScheduler scheduler = new TimerScheduler(1, TimeUnit.MILLISECONDS);
+		List<Probe> probes = new ArrayList<Probe>();
+		List<ScheduledTask> handles = new ArrayList<ScheduledTask>();
+		List<Boolean> expectRun = new ArrayList<Boolean>();
+		int expected = 0;
+		for (int i = 0; i < tasks; ++i) {
+			int roll = random.nextInt(10);
+			expectRun.add(roll >= 2);
+			if (roll >= 2) ++expected;
+		}
+		CountDownLatch done = new CountDownLatch(expected);
+		// Tasks to be cancelled may fire before that, so they count elsewhere.
+		CountDownLatch ignored = new CountDownLatch(tasks);
+
+		for (int i = 0; i < tasks; ++i) {
+			Probe probe = new Probe(expectRun.get(i) ? done : ignored);
+			// Some tasks start beyond the wheel's horizon, in the overflow heap.
+			long delay = random.nextInt(4) == 0 ? FAR : random.nextInt(300);
+			probe.earliest = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+			probes.add(probe);
+			handles.add(scheduler.schedule(probe, delay, TimeUnit.MILLISECONDS));
+		}
+		for (int i = 0; i < tasks; ++i) {
+			if (!expectRun.get(i)) {
+				scheduler.cancel(handles.get(i));
+			} else if (handles.get(i).isPending()) {
+				long delay = random.nextInt(300);
+				long earliest = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+				if (scheduler.reschedule(handles.get(i), delay, TimeUnit.MILLISECONDS)) {
+					probes.get(i).earliest = earliest;
+				}
+			}
+		}
+
+		if (!done.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException(done.getCount() + " tasks did not run");
+		}
+		Thread.sleep(50);
+		for (int i = 0; i < tasks; ++i) {
+			long ranAt = probes.get(i).ranAt.get();
+			if (!expectRun.get(i)) {
+				if (ranAt != 0 && !handles.get(i).isFired()) {
+					throw new IllegalStateException("task " + i + " ran after it was cancelled");
+				}
+			} else if (ranAt == 0) {
+				throw new IllegalStateException("task " + i + " did not run");
+			} else if (ranAt < probes.get(i).earliest) {
+				throw new IllegalStateException("task " + i + " ran early");
+			}
+		}
+		if (scheduler.pending() != 0) {
+			throw new IllegalStateException(scheduler.pending() + " tasks still pending");
+		}
+		scheduler.shutdown();
+		System.out.printf("%d tasks: none ran early or after cancel.\n", tasks);
+	}
+
+	private static void checkRejection() throws InterruptedException {
+		final ExecutorService pool = Executors.newSingleThreadExecutor();
+		final CountDownLatch done = new CountDownLatch(1);
+		final Probe rejected = new Probe(new CountDownLatch(1));
+		final Runnable failing = new Runnable() {
+
+			@Override
+			public void run() {
+				throw new IllegalStateException("action failed");
+			}
+		};
+		// Rejects one action, runs another one in the timer thread.
+		Executor executor = new Executor() {
+
+			@Override
+			public void execute(Runnable command) {
+				if (command == rejected) throw new RejectedExecutionException();
+				if (command == failing) {
+					command.run();
+					return;
+				}
+				pool.execute(command);
+			}
+		};
+
+		TimerScheduler scheduler = new TimerScheduler(1, TimeUnit.MILLISECONDS, executor);
+		ScheduledTask first = scheduler.schedule(rejected, 5, TimeUnit.MILLISECONDS);
+		ScheduledTask second = scheduler.schedule(failing, 10, TimeUnit.MILLISECONDS);
+		scheduler.schedule(new Probe(done), 50, TimeUnit.MILLISECONDS);
+		if (!done.await(5, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("timer stopped after a rejected or failing task");
+		}
+		if (!first.isRejected()) {
+			throw new IllegalStateException("rejected task not marked as rejected");
+		}
+		if (!second.isFailed() || !(second.getFailure() instanceof IllegalStateException)) {
+			throw new IllegalStateException("failing task not marked as failed");
+		}
+		scheduler.shutdown();
+		pool.shutdown();
+		System.out.println("A rejected or failing task does not stop the timer.");
+	}
+}
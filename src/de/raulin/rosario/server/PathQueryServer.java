@@ -0,0 +1,384 @@
+package de.raulin.rosario.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import de.raulin.rosario.concurrent.VirtualThreads;
+import de.raulin.rosario.graphs.CSRGraph;
+import de.raulin.rosario.graphs.Dataset;
+import de.raulin.rosario.graphs.IStaticGraph;
+import de.raulin.rosario.graphs.Path;
+import de.raulin.rosario.graphs.SearchWorkspace;
+
+/**
+ * An embedded HTTP server answering shortest-path queries.
+ * <p>
+ * GET /path?from=s&to=t answers with the distance from s to t in the first
+ * line and the vertices of the path, separated by spaces, in the second. It
+ * responds with 404 if there is no path, 400 on malformed queries and 503 if
+ * no search workspace became free within the timeout.
+ * <p>
+ * Requests run on virtual threads where the JVM provides them. At most as
+ * many searches as there are {@link SearchWorkspace}s run at the same time,
+ * and the workspaces are reused, so the server does not allocate per-query
+ * arrays under load. Queries from the same source arriving while a search
+ * from that source waits for a workspace are answered by that single search.
+ * {@link #stop(int)} releases all queries still waiting for a workspace; they
+ * fail with {@link Busy}.
+ * 
+ * @author Rosario Raulin
+ */
+public class PathQueryServer {
+
+	// Passed from leader to leader once the server stops, to end their wait.
+	private static final SearchWorkspace STOPPED = new SearchWorkspace(0);
+
+	private final CSRGraph graph;
+	private final BlockingQueue<SearchWorkspace> workspaces;
+	private final ConcurrentMap<Integer, Batch> batches;
+	private final long timeoutNanos;
+	private HttpServer server;
+	private ExecutorService executor;
+	private volatile boolean stopped;
+
+	/**
+	 * Creates a server for graph.
+	 * 
+	 * @param workspaces the maximum number of searches running at once
+	 * @param timeout how long a query may wait for a free workspace
+	 */
+	public PathQueryServer(IStaticGraph graph, int workspaces, long timeout, TimeUnit unit) {
+		this(graph, newWorkspaces(workspaces, graph.V()), timeout, unit);
+	}
+
+	/**
+	 * Creates a server taking its workspaces from the given queue, which must
+	 * have room for one more element.
+	 */
+	PathQueryServer(IStaticGraph graph, BlockingQueue<SearchWorkspace> workspaces, long timeout,
+			TimeUnit unit) {
+		this.graph = graph instanceof CSRGraph ? (CSRGraph) graph : new CSRGraph(graph);
+		this.workspaces = workspaces;
+		this.batches = new ConcurrentHashMap<Integer, Batch>();
+		this.timeoutNanos = unit.toNanos(timeout);
+	}
+
+	private static BlockingQueue<SearchWorkspace> newWorkspaces(int count, int vertices) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("need at least one workspace");
+		}
+		// One more slot for STOPPED.
+		BlockingQueue<SearchWorkspace> workspaces = new ArrayBlockingQueue<SearchWorkspace>(count + 1);
+		for (int i = 0; i < count; ++i) {
+			workspaces.add(new SearchWorkspace(vertices));
+		}
+		return workspaces;
+	}
+
+	/**
+	 * Starts listening on port (0 for any free port) of the loopback
+	 * interface.
+	 * 
+	 * @return the port the server listens on
+	 */
+	public synchronized int start(int port) throws IOException {
+		return start(new InetSocketAddress("localhost", port));
+	}
+
+	public synchronized int start(InetSocketAddress address) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("server already started");
+		}
+		stopped = false;
+		executor = VirtualThreads.newExecutor("path-query-worker");
+		server = HttpServer.create(address, 0);
+		server.createContext("/path", new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					answer(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+		server.setExecutor(executor);
+		server.start();
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops the server, waiting at most delay seconds for running exchanges.
+	 * Queries waiting for a workspace fail right away, as do later ones.
+	 */
+	public synchronized void stop(int delay) {
+		if (server == null) return;
+		stopped = true;
+		workspaces.offer(STOPPED);
+		server.stop(delay);
+		executor.shutdown();
+		server = null;
+		executor = null;
+	}
+
+	/**
+	 * Finds the shortest path from from to to.
+	 * 
+	 * @return the path, or null if there is none
+	 * @throws Busy if no workspace became free within the timeout or the
+	 *         server has been stopped
+	 */
+	public Path query(int from, int to) throws InterruptedException, Busy {
+		if (from < 0 || from >= graph.V() || to < 0 || to >= graph.V()) {
+			throw new IllegalArgumentException("no such vertex");
+		}
+		if (stopped) {
+			throw new Busy();
+		}
+		long deadline = System.nanoTime() + timeoutNanos;
+
+		while (true) {
+			Batch batch = batches.get(from);
+			if (batch == null) {
+				Batch created = new Batch(from);
+				batch = batches.putIfAbsent(from, created);
+				if (batch == null) {
+					return lead(created, to, deadline);
+				}
+			}
+			int index = batch.join(to);
+			if (index >= 0) {
+				return batch.await(index);
+			}
+			// The batch was closed in the meantime; it will be gone soon.
+			batches.remove(from, batch);
+		}
+	}
+
+	/**
+	 * Runs the search for batch once a workspace is free.
+	 */
+	private Path lead(Batch batch, int to, long deadline) throws InterruptedException, Busy {
+		int index = batch.join(to);
+		SearchWorkspace workspace = null;
+		try {
+			try {
+				workspace = acquire(deadline);
+			} finally {
+				// Later queries start a new batch instead of joining this one.
+				batch.close();
+				batches.remove(batch.source, batch);
+			}
+			if (workspace != null) {
+				batch.run(graph, workspace);
+			}
+		} finally {
+			// Followers wait for this in any case, even if the leader failed.
+			batch.done.countDown();
+			if (workspace != null) {
+				workspaces.add(workspace);
+			}
+		}
+		return batch.await(index);
+	}
+
+	/**
+	 * Takes a workspace, waiting until deadline at most.
+	 * 
+	 * @return the workspace or null if there was none in time or the server
+	 *         has been stopped
+	 */
+	private SearchWorkspace acquire(long deadline) throws InterruptedException {
+		while (true) {
+			SearchWorkspace workspace = workspaces.poll(deadline - System.nanoTime(),
+					TimeUnit.NANOSECONDS);
+			if (workspace != STOPPED) {
+				return workspace;
+			}
+			if (stopped) {
+				// Wake the next waiting leader as well.
+				workspaces.offer(STOPPED);
+				return null;
+			}
+			// Left over from before the server was restarted.
+		}
+	}
+
+	private void answer(HttpExchange exchange) throws IOException {
+		if (!"GET".equals(exchange.getRequestMethod())) {
+			respond(exchange, 405, "method not allowed\n");
+			return;
+		}
+		int from, to;
+		try {
+			URI uri = exchange.getRequestURI();
+			from = parameter(uri, "from");
+			to = parameter(uri, "to");
+			if (from < 0 || from >= graph.V() || to < 0 || to >= graph.V()) {
+				throw new IllegalArgumentException("no such vertex");
+			}
+		} catch (IllegalArgumentException e) {
+			respond(exchange, 400, e.getMessage() + "\n");
+			return;
+		}
+
+		try {
+			Path path = query(from, to);
+			if (path == null) {
+				respond(exchange, 404, "no path\n");
+				return;
+			}
+			StringBuilder body = new StringBuilder();
+			body.append(path.weight()).append('\n');
+			for (int i = 0; i < path.length(); ++i) {
+				if (i > 0) body.append(' ');
+				body.append(path.vertex(i));
+			}
+			body.append('\n');
+			respond(exchange, 200, body.toString());
+		} catch (Busy e) {
+			respond(exchange, 503, "busy\n");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respond(exchange, 503, "interrupted\n");
+		}
+	}
+
+	private static int parameter(URI uri, String name) {
+		String query = uri.getRawQuery();
+		if (query != null) {
+			for (String pair : query.split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0 && pair.substring(0, eq).equals(name)) {
+					try {
+						return Integer.parseInt(pair.substring(eq + 1));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("malformed " + name);
+					}
+				}
+			}
+		}
+		throw new IllegalArgumentException("missing " + name);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(bytes);
+		out.close();
+	}
+
+	/**
+	 * Thrown when a query could not be answered within the timeout.
+	 */
+	public static class Busy extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		Busy() {
+			super("no search workspace available");
+		}
+	}
+
+	/**
+	 * The queries from one source that are answered by a single search.
+	 */
+	private static class Batch {
+
+		private final int source;
+		private final CountDownLatch done;
+		private int[] targets;
+		private int size;
+		private boolean closed;
+		private Path[] results;
+
+		Batch(int source) {
+			this.source = source;
+			this.done = new CountDownLatch(1);
+			this.targets = new int[4];
+			this.size = 0;
+			this.closed = false;
+		}
+
+		/**
+		 * Adds a target to the batch.
+		 * 
+		 * @return the target's index or -1 if the search has already started
+		 */
+		synchronized int join(int target) {
+			if (closed) return -1;
+			if (size == targets.length) {
+				targets = Arrays.copyOf(targets, 2 * size);
+			}
+			targets[size] = target;
+			return size++;
+		}
+
+		synchronized void close() {
+			closed = true;
+		}
+
+		void run(CSRGraph graph, SearchWorkspace workspace) {
+			int[] t;
+			synchronized (this) {
+				t = Arrays.copyOf(targets, size);
+			}
+			workspace.search(graph, source, t);
+
+			Path[] paths = new Path[t.length];
+			for (int i = 0; i < t.length; ++i) {
+				paths[i] = workspace.path(t[i]);
+			}
+			synchronized (this) {
+				results = paths;
+			}
+		}
+
+		/**
+		 * Waits for the leader and returns the path to the index-th target, or
+		 * null if there is none.
+		 * There is no timeout: the leader's deadline is never later than its
+		 * followers', and it always finishes, so followers get the result of
+		 * every search that started in time.
+		 * 
+		 * @throws Busy if the leader got no workspace or its search failed
+		 */
+		Path await(int index) throws InterruptedException, Busy {
+			done.await();
+			synchronized (this) {
+				if (results == null) throw new Busy();
+				return results[index];
+			}
+		}
+	}
+
+	/**
+	 * Serves a dataset (default: sparse-1m) on a port (default: 8080).
+	 */
+	public static void main(String[] args) throws IOException {
+		Dataset dataset = args.length > 0 ? Dataset.byName(args[0]) : Dataset.SPARSE_1M;
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+		CSRGraph graph = dataset.load();
+		int threads = Runtime.getRuntime().availableProcessors();
+		PathQueryServer server = new PathQueryServer(graph, threads, 5, TimeUnit.SECONDS);
+		System.out.println("serving " + dataset.getName() + " on port " + server.start(port));
+	}
+}
@@ -0,0 +1,207 @@
+package de.raulin.rosario.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import de.raulin.rosario.graphs.CSRGraph;
+import de.raulin.rosario.graphs.Dataset;
+import de.raulin.rosario.graphs.DijkstraAlgorithm;
+import de.raulin.rosario.graphs.Edge;
+import de.raulin.rosario.graphs.EdgeList;
+import de.raulin.rosario.graphs.GraphGenerator;
+import de.raulin.rosario.graphs.SearchWorkspace;
+import de.raulin.rosario.graphs.ShortestPathTree;
+
+/**
+ * Checks {@link PathQueryServer}: concurrent HTTP queries from a few sources,
+ * so many of them are batched, must get the paths {@link DijkstraAlgorithm}
+ * finds, and stopping the server must release queries that wait for a
+ * workspace.
+ * <p>
+ * Usage: PathQueryServerTest [queries [seed]]
+ */
+public class PathQueryServerTest {
+
+	private static final int VERTICES = 20000;
+	// Vertices without edges, so some queries have no path.
+	private static final int ISOLATED = 50;
+	private static final int SOURCES = 8;
+
+	public static void main(String[] args) throws Exception {
+		int queries = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : Dataset.DEFAULT_SEED;
+		EdgeList edges = EdgeList.concat(VERTICES + ISOLATED,
+				Collections.singletonList(new GraphGenerator(seed).random(VERTICES, 4, 100)));
+		CSRGraph graph = new CSRGraph(edges);
+
+		checkQueries(graph, queries, new Random(seed));
+		checkStop(graph);
+	}
+
+	private static void checkQueries(final CSRGraph graph, int queries, Random random)
+			throws Exception {
+		ShortestPathTree[] expected = new ShortestPathTree[SOURCES];
+		for (int s = 0; s < SOURCES; ++s) {
+			expected[s] = new DijkstraAlgorithm(graph, s).tree();
+		}
+
+		PathQueryServer server = new PathQueryServer(graph, 2, 30, TimeUnit.SECONDS);
+		final int port = server.start(0);
+		ExecutorService clients = Executors.newFixedThreadPool(32);
+		List<Future<String>> answers = new ArrayList<Future<String>>();
+		int[] from = new int[queries];
+		int[] to = new int[queries];
+		for (int i = 0; i < queries; ++i) {
+			from[i] = random.nextInt(SOURCES);
+			to[i] = random.nextInt(graph.V());
+			final String query = "from=" + from[i] + "&to=" + to[i];
+			answers.add(clients.submit(new Callable<String>() {
+
+				@Override
+				public String call() throws IOException {
+					return get(port, query);
+				}
+			}));
+		}
+
+		int found = 0;
+		for (int i = 0; i < queries; ++i) {
+			String answer;
+			try {
+				answer = answers.get(i).get();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("query " + i + " failed", e.getCause());
+			}
+			ShortestPathTree tree = expected[from[i]];
+			String where = "path from " + from[i] + " to " + to[i];
+			if (!tree.hasPathTo(to[i])) {
+				check(answer.startsWith("404 "), where + ": expected 404, got " + answer);
+				continue;
+			}
+			check(answer.startsWith("200 "), where + ": expected 200, got " + answer);
+			String[] lines = answer.substring(4).split("\n");
+			double distance = Double.parseDouble(lines[0]);
+			check(Math.abs(distance - tree.distTo(to[i])) < 1e-9, where + ": wrong distance");
+			String[] vertices = lines[1].split(" ");
+			check(Integer.parseInt(vertices[0]) == from[i], where + ": wrong start");
+			check(Integer.parseInt(vertices[vertices.length - 1]) == to[i], where + ": wrong end");
+			double weight = 0;
+			for (int j = 1; j < vertices.length; ++j) {
+				weight += edgeWeight(graph, Integer.parseInt(vertices[j - 1]),
+						Integer.parseInt(vertices[j]));
+			}
+			check(Math.abs(weight - distance) < 1e-9, where + ": edges do not add up");
+			++found;
+		}
+		clients.shutdown();
+		server.stop(0);
+		System.out.printf("%d concurrent queries (%d paths) match Dijkstra.\n", queries, found);
+	}
+
+	/**
+	 * Takes away the only workspace, so that the queries pile up behind their
+	 * leaders, and checks that stopping the server releases all of them long
+	 * before their timeout.
+	 */
+	private static void checkStop(final CSRGraph graph) throws Exception {
+		BlockingQueue<SearchWorkspace> workspaces = new LinkedBlockingQueue<SearchWorkspace>();
+		final PathQueryServer server = new PathQueryServer(graph, workspaces, 60, TimeUnit.SECONDS);
+		server.start(0);
+
+		ExecutorService clients = Executors.newCachedThreadPool();
+		List<Future<String>> answers = new ArrayList<Future<String>>();
+		for (int i = 0; i < 20; ++i) {
+			// Two sources: two waiting leaders with nine followers each.
+			final int from = i % 2;
+			final int to = i;
+			answers.add(clients.submit(new Callable<String>() {
+
+				@Override
+				public String call() throws InterruptedException {
+					try {
+						server.query(from, to);
+						return "answered";
+					} catch (PathQueryServer.Busy e) {
+						return "busy";
+					}
+				}
+			}));
+		}
+		Thread.sleep(500);
+		for (Future<String> answer : answers) {
+			check(!answer.isDone(), "query answered without a workspace");
+		}
+
+		long start = System.nanoTime();
+		server.stop(0);
+		for (Future<String> answer : answers) {
+			check(answer.get(5, TimeUnit.SECONDS).equals("busy"), "query not released");
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		clients.shutdown();
+
+		boolean rejected = false;
+		try {
+			server.query(0, 1);
+		} catch (PathQueryServer.Busy e) {
+			rejected = true;
+		}
+		check(rejected, "query accepted after stop");
+		System.out.printf("stop() released %d waiting queries in %.3f seconds.\n", answers.size(),
+				seconds);
+	}
+
+	/**
+	 * Returns the status code, a space and the body of GET /path?query.
+	 */
+	private static String get(int port, String query) throws IOException {
+		URL url = new URL("http://localhost:" + port + "/path?" + query);
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		try {
+			int status = connection.getResponseCode();
+			InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int n; (n = in.read(buffer)) > 0;) {
+				body.write(buffer, 0, n);
+			}
+			in.close();
+			return status + " " + new String(body.toByteArray(), StandardCharsets.UTF_8);
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private static double edgeWeight(CSRGraph graph, int from, int to) {
+		double weight = Double.POSITIVE_INFINITY;
+		for (Edge e : graph.getAdjacent(from)) {
+			if (e.getTo() == to) {
+				weight = Math.min(weight, e.getWeight());
+			}
+		}
+		check(weight < Double.POSITIVE_INFINITY, "no edge from " + from + " to " + to);
+		return weight;
+	}
+
+	private static void check(boolean condition, String what) {
+		if (!condition) {
+			throw new IllegalStateException(what);
+		}
+	}
+}